@@ -1,7 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useParams, Link, useNavigate } from 'react-router-dom';
 import { getBookById, deleteBook } from '../services/bookService';
-import { getReviewsByIds, createReview } from '../services/reviewService';
+import { getBookReviews, createReview } from '../services/reviewService';
 import { isAdmin, isAuthenticated, getUserId, getUsername } from '../services/authService';
 import { useCart } from '../context/CartContext';
 
@@ -10,10 +10,12 @@ const BookDetails = () => {
   const navigate = useNavigate();
   const [book, setBook] = useState(null);
   const [reviews, setReviews] = useState([]);
+  const [reviewsCursor, setReviewsCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [reviewsLoading, setReviewsLoading] = useState(false);
   const [error, setError] = useState(null);
   const [reviewText, setReviewText] = useState('');
+  const [reviewRating, setReviewRating] = useState(5);
   const [reviewSubmitting, setReviewSubmitting] = useState(false);
   const [reviewError, setReviewError] = useState(null);
   const { addToCart } = useCart();
@@ -34,23 +36,21 @@ const BookDetails = () => {
     fetchBook();
   }, [id]);
 
-  useEffect(() => {
-    const fetchReviews = async () => {
-      if (book && book.reviewIds && book.reviewIds.length > 0) {
-        setReviewsLoading(true);
-        try {
-          const reviewsData = await getReviewsByIds(book.reviewIds);
-          setReviews(reviewsData);
-          setReviewsLoading(false);
-        } catch (err) {
-          console.error('Failed to fetch reviews:', err);
-          setReviewsLoading(false);
-        }
-      }
-    };
+  const fetchReviews = async (cursor = null) => {
+    setReviewsLoading(true);
+    try {
+      const page = await getBookReviews(id, cursor);
+      setReviews(cursor ? [...reviews, ...page.content] : page.content);
+      setReviewsCursor(page.last ? null : page.nextCursor);
+    } catch (err) {
+      console.error('Failed to fetch reviews:', err);
+    }
+    setReviewsLoading(false);
+  };
 
+  useEffect(() => {
     fetchReviews();
-  }, [book]);
+  }, [id]);
 
   const handleDelete = async () => {
     if (window.confirm('Are you sure you want to delete this book?')) {
@@ -83,17 +83,19 @@ const BookDetails = () => {
 
       const newReview = {
         text: reviewText,
+        rating: reviewRating,
         reviewerId: userId,
         reviewerName: username,
         bookId: parseInt(id)
       };
 
       const createdReview = await createReview(newReview);
-      setReviews([...reviews, createdReview]);
+      setReviews([createdReview, ...reviews]);
       setReviewText('');
+      setReviewRating(5);
       setReviewSubmitting(false);
 
-      // Refresh the book data to get the updated reviewIds
+      // Refresh the book data to get the updated rating
       const updatedBook = await getBookById(id);
       setBook(updatedBook);
     } catch (err) {
@@ -208,7 +210,7 @@ const BookDetails = () => {
           Reviews
         </h2>
 
-        {reviewsLoading ? (
+        {reviewsLoading && reviews.length === 0 ? (
           <div className="flex justify-center items-center p-4">
             <div className="animate-spin rounded-full h-8 w-8 border-b-2 border-bookstore-primary"></div>
             <p className="ml-2 text-gray-500">Loading reviews...</p>
@@ -217,6 +219,11 @@ const BookDetails = () => {
           <div className="space-y-6">
             {reviews.map(review => (
               <div key={review.id} className="bg-bookstore-lighter p-4 rounded-lg shadow-sm hover:shadow-md transition-shadow">
+                {review.rating && (
+                  <p className="text-yellow-500 mb-1" title={`${review.rating} out of 5`}>
+                    {'\u2605'.repeat(review.rating)}{'\u2606'.repeat(5 - review.rating)}
+                  </p>
+                )}
                 <p className="text-gray-700 mb-3 italic">{review.text}</p>
                 <div className="flex items-center">
                   <div className="bg-bookstore-primary text-white rounded-full w-8 h-8 flex items-center justify-center mr-2">
@@ -226,6 +233,15 @@ const BookDetails = () => {
                 </div>
               </div>
             ))}
+            {reviewsCursor && (
+              <button
+                onClick={() => fetchReviews(reviewsCursor)}
+                disabled={reviewsLoading}
+                className="text-bookstore-primary hover:text-bookstore-accent font-medium transition-colors"
+              >
+                {reviewsLoading ? 'Loading...' : 'Show more reviews'}
+              </button>
+            )}
           </div>
         ) : (
           <div className="bg-yellow-50 p-4 rounded-lg border border-yellow-200 text-center">
@@ -249,6 +265,19 @@ const BookDetails = () => {
             </div>
           )}
           <form onSubmit={handleReviewSubmit} className="space-y-4">
+            <div>
+              <label className="block text-gray-700 font-medium mb-1" htmlFor="review-rating">Rating</label>
+              <select
+                id="review-rating"
+                value={reviewRating}
+                onChange={(e) => setReviewRating(parseInt(e.target.value))}
+                className="p-2 border border-gray-300 rounded-lg focus:ring-2 focus:ring-bookstore-accent focus:border-bookstore-accent"
+              >
+                {[5, 4, 3, 2, 1].map(stars => (
+                  <option key={stars} value={stars}>{stars} {stars === 1 ? 'star' : 'stars'}</option>
+                ))}
+              </select>
+            </div>
             <div>
               <textarea
                 value={reviewText}
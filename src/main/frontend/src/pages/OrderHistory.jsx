@@ -5,6 +5,8 @@ import { isAuthenticated, getUserId } from '../services/authService';
 
 const OrderHistory = () => {
   const [orders, setOrders] = useState([]);
+  const [nextPageNo, setNextPageNo] = useState(null);
+  const [moreLoading, setMoreLoading] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const navigate = useNavigate();
@@ -24,8 +26,9 @@ const OrderHistory = () => {
           throw new Error('User ID not found');
         }
         
-        const data = await getOrderHistory(customerId);
-        setOrders(data);
+        const page = await getOrderHistory(customerId);
+        setOrders(page.content);
+        setNextPageNo(page.last ? null : page.pageNo + 1);
         setLoading(false);
       } catch (err) {
         console.error('Failed to fetch order history:', err);
@@ -37,6 +40,19 @@ const OrderHistory = () => {
     fetchOrderHistory();
   }, [navigate]);
 
+  // Appends the next page of older orders
+  const fetchMoreOrders = async () => {
+    setMoreLoading(true);
+    try {
+      const page = await getOrderHistory(getUserId(), nextPageNo);
+      setOrders([...orders, ...page.content]);
+      setNextPageNo(page.last ? null : page.pageNo + 1);
+    } catch (err) {
+      console.error('Error fetching more orders:', err);
+    }
+    setMoreLoading(false);
+  };
+
   // Format date to a more readable format
   const formatDate = (dateString) => {
     const options = { year: 'numeric', month: 'long', day: 'numeric', hour: '2-digit', minute: '2-digit' };
@@ -110,6 +126,18 @@ const OrderHistory = () => {
         </div>
       )}
 
+      {nextPageNo !== null && (
+        <div className="flex justify-center mt-6">
+          <button
+            onClick={fetchMoreOrders}
+            disabled={moreLoading}
+            className="px-4 py-2 rounded-lg bg-gray-200 text-gray-700 hover:bg-gray-300"
+          >
+            {moreLoading ? 'Loading...' : 'Load more orders'}
+          </button>
+        </div>
+      )}
+
       {orders.length > 0 && (
         <div className="mt-6">
           <button
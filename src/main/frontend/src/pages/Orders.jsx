@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { getAllOrders, downloadOrders } from '../services/orderService';
+import { getOrdersPage, downloadOrders } from '../services/orderService';
 import { isAnalyst } from '../services/authService';
 import { useNavigate } from 'react-router-dom';
 // Import Recharts components
@@ -7,6 +7,8 @@ import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, Legend, Responsive
 
 const Orders = () => {
   const [orders, setOrders] = useState([]);
+  const [ordersCursor, setOrdersCursor] = useState(null);
+  const [moreLoading, setMoreLoading] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [viewMode, setViewMode] = useState('table'); // 'table' or 'graph'
@@ -21,8 +23,9 @@ const Orders = () => {
 
     const fetchOrders = async () => {
       try {
-        const data = await getAllOrders();
-        setOrders(data);
+        const page = await getOrdersPage();
+        setOrders(page.content);
+        setOrdersCursor(page.last ? null : page.nextCursor);
         setLoading(false);
       } catch (err) {
         setError('Failed to fetch orders. Please try again later.');
@@ -34,6 +37,19 @@ const Orders = () => {
     fetchOrders();
   }, [navigate]);
 
+  // Appends the next batch of older orders
+  const fetchMoreOrders = async () => {
+    setMoreLoading(true);
+    try {
+      const page = await getOrdersPage(ordersCursor);
+      setOrders([...orders, ...page.content]);
+      setOrdersCursor(page.last ? null : page.nextCursor);
+    } catch (err) {
+      console.error('Error fetching more orders:', err);
+    }
+    setMoreLoading(false);
+  };
+
   // Format date to a more readable format
   const formatDate = (dateString) => {
     const options = { year: 'numeric', month: 'long', day: 'numeric', hour: '2-digit', minute: '2-digit' };
@@ -184,7 +200,7 @@ const Orders = () => {
       ) : (
         // Graph View
         <div className="bg-white p-6 rounded-lg shadow-md">
-          <h2 className="text-xl font-semibold mb-4 text-gray-800">Orders by Month</h2>
+          <h2 className="text-xl font-semibold mb-4 text-gray-800">Orders by Month (loaded orders)</h2>
           <div className="h-96">
             <ResponsiveContainer width="100%" height="100%">
               <BarChart
@@ -214,6 +230,18 @@ const Orders = () => {
           </div>
         </div>
       )}
+
+      {ordersCursor && (
+        <div className="flex justify-center mt-6">
+          <button
+            onClick={fetchMoreOrders}
+            disabled={moreLoading}
+            className="px-4 py-2 rounded-lg bg-gray-200 text-gray-700 hover:bg-gray-300"
+          >
+            {moreLoading ? 'Loading...' : 'Load more orders'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
@@ -1,19 +1,34 @@
-import { fetchAll, fetchById, create, update, remove, downloadFile } from './api';
+import { fetchById, create, update, remove, downloadFile } from './api';
 import api from './api';
 
 const ENDPOINT = 'orders';
 
-export const getAllOrders = () => fetchAll(ENDPOINT);
 export const getOrderById = (id) => fetchById(ENDPOINT, id);
 export const createOrder = (order) => create(ENDPOINT, order);
 export const updateOrder = (id, order) => update(ENDPOINT, id, order);
 export const deleteOrder = (id) => remove(ENDPOINT, id);
 export const downloadOrders = () => downloadFile(`${ENDPOINT}/download`, 'orders.json');
 
-// Get order history for a specific customer
-export const getOrderHistory = async (customerId) => {
+// Get a batch of orders, newest first. Pass the previous batch's nextCursor to continue
+export const getOrdersPage = async (cursor = null, pageSize = 50) => {
   try {
-    const response = await api.get(`/${ENDPOINT}-history?customerId=${customerId}`);
+    const params = new URLSearchParams({ pageSize });
+    if (cursor) {
+      params.append('cursor', cursor);
+    }
+    const response = await api.get(`/${ENDPOINT}/page?${params}`);
+    return response.data;
+  } catch (error) {
+    console.error('Error fetching orders:', error);
+    throw error;
+  }
+};
+
+// Get a page of a customer's order history, newest first
+export const getOrderHistory = async (customerId, pageNo = 0, pageSize = 10) => {
+  try {
+    const params = new URLSearchParams({ customerId, pageNo, pageSize });
+    const response = await api.get(`/${ENDPOINT}-history/page?${params}`);
     return response.data;
   } catch (error) {
     console.error('Error fetching order history:', error);
@@ -22,7 +37,7 @@ export const getOrderHistory = async (customerId) => {
 };
 
 export default {
-  getAllOrders,
+  getOrdersPage,
   getOrderById,
   createOrder,
   updateOrder,
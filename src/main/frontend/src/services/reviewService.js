@@ -9,20 +9,17 @@ export const createReview = (review) => create(ENDPOINT, review);
 export const updateReview = (id, review) => update(ENDPOINT, id, review);
 export const deleteReview = (id) => remove(ENDPOINT, id);
 
-// Get reviews by their IDs
-export const getReviewsByIds = async (reviewIds) => {
+// Get a page of a book's reviews, newest first. Pass the previous page's nextCursor to continue
+export const getBookReviews = async (bookId, cursor = null, pageSize = 10) => {
   try {
-    // If there are no review IDs, return an empty array
-    if (!reviewIds || reviewIds.length === 0) {
-      return [];
+    const params = new URLSearchParams({ pageSize });
+    if (cursor) {
+      params.append('cursor', cursor);
     }
-
-    // Fetch each review by its ID
-    const reviewPromises = reviewIds.map(id => getReviewById(id));
-    const reviews = await Promise.all(reviewPromises);
-    return reviews;
+    const response = await api.get(`/books/${bookId}/${ENDPOINT}?${params}`);
+    return response.data;
   } catch (error) {
-    console.error('Error fetching reviews by IDs:', error);
+    console.error('Error fetching reviews of the book:', error);
     throw error;
   }
 };
@@ -33,5 +30,5 @@ export default {
   createReview,
   updateReview,
   deleteReview,
-  getReviewsByIds
+  getBookReviews
 };
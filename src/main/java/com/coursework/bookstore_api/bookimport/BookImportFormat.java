@@ -0,0 +1,42 @@
+package com.coursework.bookstore_api.bookimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Optional;
+
+public enum BookImportFormat {
+    CSV,
+    JSON;
+
+    public BookImportReader open(InputStream input, ObjectMapper objectMapper) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvBookImportReader(input);
+            case JSON -> new JsonBookImportReader(input, objectMapper);
+        };
+    }
+
+    /**
+     * Picks the format from an explicit name, or else from the file extension or content type.
+     */
+    public static Optional<BookImportFormat> detect(String format, String fileName, String contentType) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return Optional.of(valueOf(format.strip().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".json") || type.contains("json")) {
+            return Optional.of(JSON);
+        }
+        if (name.endsWith(".csv") || type.contains("csv")) {
+            return Optional.of(CSV);
+        }
+        return Optional.empty();
+    }
+}
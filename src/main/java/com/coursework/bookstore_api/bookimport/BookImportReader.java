@@ -0,0 +1,16 @@
+package com.coursework.bookstore_api.bookimport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the rows of an import file one at a time, so that files of any size are imported in constant memory.
+ */
+public interface BookImportReader extends Closeable {
+    /**
+     * @return the next row, or null at the end of the file
+     * @throws InvalidImportRowException if the next row is invalid; the reader can go on with the row after it
+     * @throws IOException               if the file itself is unreadable or malformed, which ends the import
+     */
+    BookImportRow next() throws IOException;
+}
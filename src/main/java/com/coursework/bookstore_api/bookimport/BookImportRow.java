@@ -0,0 +1,94 @@
+package com.coursework.bookstore_api.bookimport;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * One validated row of a book import file. References are given by name and resolved (or created) by the import.
+ *
+ * @param isbn identifies the book across imports: a row whose ISBN is already in the DB updates that book.
+ *             Rows without one always create a new book
+ */
+public record BookImportRow(long rowNumber, String title, String isbn, List<String> authors, List<String> genres,
+                            String publisher, String language, double price, int numberInStock, String imageUrl) {
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    /**
+     * Validates the raw values of a row, as read from CSV or JSON.
+     *
+     * @throws InvalidImportRowException if a required value is missing or a value is malformed
+     */
+    public static BookImportRow parse(long rowNumber, String title, String isbn, List<String> authors,
+                                      List<String> genres, String publisher, String language, String price,
+                                      String numberInStock, String imageUrl) {
+        return new BookImportRow(rowNumber,
+                required(rowNumber, "title", title),
+                optional(rowNumber, "isbn", isbn),
+                names(rowNumber, "authors", authors),
+                names(rowNumber, "genres", genres),
+                required(rowNumber, "publisher", publisher),
+                required(rowNumber, "language", language),
+                parsePrice(rowNumber, price),
+                parseStock(rowNumber, numberInStock),
+                optional(rowNumber, "imageUrl", imageUrl));
+    }
+
+    private static String required(long rowNumber, String field, String value) {
+        String text = optional(rowNumber, field, value);
+        if (text == null) {
+            throw new InvalidImportRowException(rowNumber, field + " is required");
+        }
+        return text;
+    }
+
+    private static String optional(long rowNumber, String field, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String text = value.strip();
+        if (text.length() > MAX_TEXT_LENGTH) {
+            throw new InvalidImportRowException(rowNumber,
+                    field + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return text;
+    }
+
+    private static List<String> names(long rowNumber, String field, List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream()
+                .map(value -> optional(rowNumber, field, value))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+
+    private static double parsePrice(long rowNumber, String value) {
+        try {
+            double price = Double.parseDouble(required(rowNumber, "price", value));
+            if (!(price >= 0) || Double.isInfinite(price)) {
+                throw new InvalidImportRowException(rowNumber, "price must not be negative: " + value);
+            }
+            return price;
+        } catch (NumberFormatException e) {
+            throw new InvalidImportRowException(rowNumber, "price is not a number: " + value);
+        }
+    }
+
+    private static int parseStock(long rowNumber, String value) {
+        String text = optional(rowNumber, "numberInStock", value);
+        if (text == null) {
+            return 0;
+        }
+        try {
+            int stock = Integer.parseInt(text);
+            if (stock < 0) {
+                throw new InvalidImportRowException(rowNumber, "numberInStock must not be negative: " + value);
+            }
+            return stock;
+        } catch (NumberFormatException e) {
+            throw new InvalidImportRowException(rowNumber, "numberInStock is not a whole number: " + value);
+        }
+    }
+}
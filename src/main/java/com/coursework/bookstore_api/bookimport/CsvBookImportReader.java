@@ -0,0 +1,139 @@
+package com.coursework.bookstore_api.bookimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams an RFC 4180 CSV file with a header row. Columns are matched by name, case-insensitively and ignoring
+ * underscores (title, isbn, authors, genres, publisher, language, price, number_in_stock, image_url); unknown
+ * columns are ignored. Authors and genres hold several names separated by '|'.
+ */
+class CsvBookImportReader implements BookImportReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "price", "publisher", "language");
+    private static final String NAME_SEPARATOR = "\\|";
+
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+    private int columnCount;
+    private long rowNumber;
+
+    CsvBookImportReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public BookImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+        List<String> values = readRecord();
+        if (values == null) {
+            return null;
+        }
+        rowNumber++;
+        if (values.size() != columnCount) {
+            throw new InvalidImportRowException(rowNumber,
+                    "expected " + columnCount + " values but found " + values.size());
+        }
+        return BookImportRow.parse(rowNumber,
+                value(values, "title"),
+                value(values, "isbn"),
+                names(value(values, "authors")),
+                names(value(values, "genres")),
+                value(values, "publisher"),
+                value(values, "language"),
+                value(values, "price"),
+                value(values, "numberinstock"),
+                value(values, "imageurl"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("The CSV file is empty");
+        }
+        columns = new HashMap<>();
+        columnCount = header.size();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").replace("_", "").strip().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IOException("The CSV header has no " + required + " column");
+            }
+        }
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        return index == null ? null : values.get(index);
+    }
+
+    private static List<String> names(String value) {
+        return value == null || value.isBlank() ? List.of() : Arrays.asList(value.split(NAME_SEPARATOR));
+    }
+
+    /**
+     * @return the values of the next non-blank record, or null at the end of the file
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        int c = reader.read();
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted value after row " + rowNumber);
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                value.append((char) c);
+            } else if (c == -1 || c == '\n') {
+                if (empty) {
+                    if (c == -1) {
+                        return null;
+                    }
+                    // skip blank lines
+                    c = reader.read();
+                    continue;
+                }
+                values.add(value.toString());
+                return values;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+                empty = false;
+            } else if (c == '"' && value.isEmpty()) {
+                quoted = true;
+                empty = false;
+            } else if (c != '\r') {
+                value.append((char) c);
+                empty = false;
+            }
+            c = reader.read();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.coursework.bookstore_api.bookimport;
+
+import lombok.Getter;
+
+/**
+ * A row of an import file that can't be imported. The import reports it and goes on with the next row.
+ */
+@Getter
+public class InvalidImportRowException extends RuntimeException {
+    private final long rowNumber;
+
+    public InvalidImportRowException(long rowNumber, String message) {
+        super(message);
+        this.rowNumber = rowNumber;
+    }
+}
@@ -0,0 +1,89 @@
+package com.coursework.bookstore_api.bookimport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a JSON array of book objects with the fields title, isbn, authors and genres (arrays of names),
+ * publisher, language, price, numberInStock and imageUrl. Each element is read as a tree before it is
+ * validated, so a bad value only fails its own row.
+ */
+class JsonBookImportReader implements BookImportReader {
+    private final JsonParser parser;
+    private boolean started;
+    private long rowNumber;
+
+    JsonBookImportReader(InputStream input, ObjectMapper objectMapper) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(input);
+    }
+
+    @Override
+    public BookImportRow next() throws IOException {
+        if (!started) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("The JSON file must contain an array of books");
+            }
+            started = true;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY || token == null) {
+            return null;
+        }
+        rowNumber++;
+        JsonNode node = parser.readValueAsTree();
+        if (node == null || !node.isObject()) {
+            throw new InvalidImportRowException(rowNumber, "expected a book object");
+        }
+        return BookImportRow.parse(rowNumber,
+                text(node, "title"),
+                text(node, "isbn"),
+                names(node, "authors"),
+                names(node, "genres"),
+                text(node, "publisher"),
+                text(node, "language"),
+                text(node, "price"),
+                text(node, "numberInStock"),
+                text(node, "imageUrl"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isValueNode()) {
+            throw new InvalidImportRowException(rowNumber, field + " must be a single value");
+        }
+        return value.asText();
+    }
+
+    private List<String> names(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return List.of();
+        }
+        if (value.isValueNode()) {
+            return List.of(value.asText());
+        }
+        List<String> names = new ArrayList<>();
+        for (JsonNode element : value) {
+            if (!element.isValueNode()) {
+                throw new InvalidImportRowException(rowNumber, field + " must be an array of names");
+            }
+            names.add(element.asText());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,105 @@
+package com.coursework.bookstore_api.bookimport;
+
+import com.coursework.bookstore_api.event.ReferenceType;
+import com.coursework.bookstore_api.repository.BookImportRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Name to id maps of the authors, genres, publishers and languages, loaded once per import so that rows are
+ * resolved without a query each. Names match case-insensitively, the lowest id winning for duplicates. Missing
+ * names are created on first use, in their own committed transaction, so that every import worker can link
+ * to them right away.
+ */
+public class ReferenceResolver {
+    private final BookImportRepository bookImportRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<ReferenceType, Map<String, Integer>> ids = new EnumMap<>(ReferenceType.class);
+    private final Map<ReferenceType, AtomicLong> created = new EnumMap<>(ReferenceType.class);
+
+    public ReferenceResolver(BookImportRepository bookImportRepository, TransactionTemplate transactionTemplate) {
+        this.bookImportRepository = bookImportRepository;
+        this.transactionTemplate = transactionTemplate;
+        for (ReferenceType type : ReferenceType.values()) {
+            Map<String, Integer> byName = new ConcurrentHashMap<>();
+            bookImportRepository.forEachReference(type, (name, id) -> byName.putIfAbsent(key(name), id));
+            ids.put(type, byName);
+            created.put(type, new AtomicLong());
+        }
+    }
+
+    /**
+     * Makes sure that every author, genre, publisher and language named by the rows exists.
+     */
+    public void resolveAll(List<BookImportRow> rows) {
+        Map<ReferenceType, Set<String>> names = new EnumMap<>(ReferenceType.class);
+        for (ReferenceType type : ReferenceType.values()) {
+            names.put(type, new LinkedHashSet<>());
+        }
+        for (BookImportRow row : rows) {
+            names.get(ReferenceType.AUTHOR).addAll(row.authors());
+            names.get(ReferenceType.GENRE).addAll(row.genres());
+            names.get(ReferenceType.PUBLISHER).add(row.publisher());
+            names.get(ReferenceType.LANGUAGE).add(row.language());
+        }
+        names.forEach(this::resolve);
+    }
+
+    /**
+     * @return the id of a name passed to {@link #resolveAll} before
+     */
+    public int id(ReferenceType type, String name) {
+        Integer id = ids.get(type).get(key(name));
+        if (id == null) {
+            throw new IllegalStateException(type + " was not resolved: " + name);
+        }
+        return id;
+    }
+
+    public long created(ReferenceType type) {
+        return created.get(type).get();
+    }
+
+    private void resolve(ReferenceType type, Collection<String> names) {
+        Map<String, Integer> byName = ids.get(type);
+        if (names.stream().allMatch(name -> byName.containsKey(key(name)))) {
+            return;
+        }
+        // One creator per type at a time, so that two workers never create the same name twice
+        synchronized (byName) {
+            Map<String, String> missing = new LinkedHashMap<>();
+            for (String name : names) {
+                String key = key(name);
+                if (!byName.containsKey(key)) {
+                    missing.putIfAbsent(key, name);
+                }
+            }
+            if (missing.isEmpty()) {
+                return;
+            }
+            List<String> newNames = new ArrayList<>(missing.values());
+            int[] newIds = transactionTemplate.execute(status ->
+                    bookImportRepository.insertReferences(type, newNames));
+            int i = 0;
+            for (String key : missing.keySet()) {
+                byName.put(key, newIds[i++]);
+            }
+            created.get(type).addAndGet(newIds.length);
+        }
+    }
+
+    private static String key(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,43 @@
+package com.coursework.bookstore_api.config;
+
+import com.coursework.bookstore_api.repository.BookRatingRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Counts the reviews written before book_rating existed, once, on a background thread. From then on every review
+ * write keeps the totals up to date itself. Completion is recorded in data_migration in the same transaction as
+ * the recount, so reviews written before the backfill runs can't make it look done.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookRatingBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(BookRatingBackfill.class);
+
+    private final BookRatingRepository bookRatingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInBackground() {
+        Thread thread = new Thread(this::backfill, "book-rating-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void backfill() {
+        try {
+            Integer books = transactionTemplate.execute(status ->
+                    bookRatingRepository.claimBackfill() ? bookRatingRepository.recount() : 0);
+            if (books != null && books > 0) {
+                logger.info("Backfilled the ratings of {} books", books);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to backfill book ratings: {}", e.getMessage());
+        }
+    }
+}
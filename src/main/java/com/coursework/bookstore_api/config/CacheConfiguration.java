@@ -0,0 +1,48 @@
+package com.coursework.bookstore_api.config;
+
+import com.coursework.bookstore_api.constants.CacheNames;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process caches for reference data (genres, languages, publishers). Entries are bounded by size and
+ * expire after {@code cache.reference.ttl} as a safety net; the services evict them on every write.
+ * Ready-made book details have their own, smaller cache, evicted by {@code BookDetailsCacheInvalidator}.
+ * Hit/miss and eviction statistics are recorded and exposed by actuator as {@code cache.gets} and
+ * {@code cache.evictions}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${cache.reference.max-size:1000}") long maxSize,
+                                     @Value("${cache.reference.ttl:1h}") Duration ttl,
+                                     @Value("${cache.book-details.max-size:500}") long bookDetailsMaxSize,
+                                     @Value("${cache.book-details.ttl:10m}") Duration bookDetailsTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setCacheNames(List.of(
+                CacheNames.GENRES, CacheNames.GENRE,
+                CacheNames.LANGUAGES, CacheNames.LANGUAGE,
+                CacheNames.PUBLISHERS, CacheNames.PUBLISHER
+        ));
+        cacheManager.registerCustomCache(CacheNames.BOOK_DETAILS, Caffeine.newBuilder()
+                .maximumSize(bookDetailsMaxSize)
+                .expireAfterWrite(bookDetailsTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,60 @@
+package com.coursework.bookstore_api.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.filter.ThresholdFilter;
+import com.coursework.bookstore_api.util.DatabaseServiceAppender;
+import com.coursework.bookstore_api.util.logging.DatabaseLogSink;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Attaches {@link DatabaseServiceAppender} to the root logger once the application is up, so application logs
+ * at or above {@code logging.db.appender.level} also end up in the {@code log} table.
+ * Off by default, enabled with {@code logging.db.appender.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "logging.db.appender.enabled", havingValue = "true")
+public class DatabaseLogAppenderConfiguration {
+    private static final String APPENDER_NAME = "DATABASE";
+
+    private final DatabaseLogSink databaseLogSink;
+    private final String loggerPrefix;
+    private final String level;
+
+    public DatabaseLogAppenderConfiguration(DatabaseLogSink databaseLogSink,
+                                            @Value("${logging.db.appender.logger-prefix:com.coursework.bookstore_api}") String loggerPrefix,
+                                            @Value("${logging.db.appender.level:INFO}") String level) {
+        this.databaseLogSink = databaseLogSink;
+        this.loggerPrefix = loggerPrefix;
+        this.level = level;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void attachAppender() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        ThresholdFilter threshold = new ThresholdFilter();
+        threshold.setLevel(level);
+        threshold.start();
+
+        DatabaseServiceAppender appender = new DatabaseServiceAppender(databaseLogSink, loggerPrefix);
+        appender.setContext(context);
+        appender.setName(APPENDER_NAME);
+        appender.addFilter(threshold);
+        appender.start();
+
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(appender);
+    }
+
+    @PreDestroy
+    public void detachAppender() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).detachAppender(APPENDER_NAME);
+    }
+}
@@ -0,0 +1,45 @@
+package com.coursework.bookstore_api.config;
+
+import com.coursework.bookstore_api.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops the legacy order_item trigger that decremented the stock when orders reserve it themselves, before the
+ * application takes any order, so that no order is charged twice for its stock. With the in-app reservation
+ * turned off the trigger is left alone and only reported.
+ */
+@Component
+public class LegacyStockTriggerCleanup {
+    private static final Logger logger = LoggerFactory.getLogger(LegacyStockTriggerCleanup.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final boolean reserveStock;
+
+    public LegacyStockTriggerCleanup(InventoryRepository inventoryRepository,
+                                     @Value("${orders.stock.reserve-in-app:true}") boolean reserveStock) {
+        this.inventoryRepository = inventoryRepository;
+        this.reserveStock = reserveStock;
+    }
+
+    @PostConstruct
+    public void dropLegacyTriggers() {
+        List<String> triggers = inventoryRepository.findLegacyStockTriggers();
+        if (!reserveStock) {
+            if (triggers.isEmpty()) {
+                logger.warn("orders.stock.reserve-in-app is off but no stock trigger exists on order_item, " +
+                        "so orders do not take any stock");
+            }
+            return;
+        }
+        for (String trigger : triggers) {
+            inventoryRepository.dropOrderItemTrigger(trigger);
+            logger.warn("Dropped the legacy stock trigger {} on order_item, orders now reserve their stock", trigger);
+        }
+    }
+}
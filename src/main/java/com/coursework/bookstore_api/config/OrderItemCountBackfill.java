@@ -0,0 +1,53 @@
+package com.coursework.bookstore_api.config;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills payment.item_count for orders placed before the column existed, in small batches on a background thread
+ * so that startup is not delayed and no long-running update locks many orders at once. New orders are written
+ * with their item count, so after the first run there is nothing left to do.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderItemCountBackfill {
+    private static final Logger logger = LoggerFactory.getLogger(OrderItemCountBackfill.class);
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final String BACKFILL_BATCH = """
+            UPDATE payment p SET item_count =
+                   (SELECT count(*) FROM order_item oi WHERE oi.payment_id = p.payment_id)
+            WHERE p.payment_id IN (SELECT payment_id FROM payment WHERE item_count IS NULL LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillInBackground() {
+        Thread thread = new Thread(this::backfill, "order-item-count-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void backfill() {
+        long total = 0;
+        try {
+            int updated;
+            do {
+                updated = jdbcTemplate.update(BACKFILL_BATCH, BATCH_SIZE);
+                total += updated;
+            } while (updated == BATCH_SIZE);
+        } catch (RuntimeException e) {
+            logger.error("Failed to backfill order item counts after {} orders: {}", total, e.getMessage());
+            return;
+        }
+        if (total > 0) {
+            logger.info("Backfilled the item count of {} orders", total);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.coursework.bookstore_api.config;
+
+import com.coursework.bookstore_api.constants.CacheNames;
+import com.coursework.bookstore_api.dto.GenreDto;
+import com.coursework.bookstore_api.dto.LanguageDto;
+import com.coursework.bookstore_api.dto.PublisherDto;
+import com.coursework.bookstore_api.service.GenreService;
+import com.coursework.bookstore_api.service.LanguageService;
+import com.coursework.bookstore_api.service.PublisherService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * Loads all genres, languages and publishers into the caches at startup, so the first requests are served from
+ * memory. The find-all calls go through the cached services; each item is then also put into the by-id cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCacheWarmer {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCacheWarmer.class);
+
+    private final GenreService genreService;
+    private final LanguageService languageService;
+    private final PublisherService publisherService;
+    private final CacheManager cacheManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int genres = putById(CacheNames.GENRE, genreService.findAll(), GenreDto::getId);
+        int languages = putById(CacheNames.LANGUAGE, languageService.findAll(), LanguageDto::getId);
+        int publishers = putById(CacheNames.PUBLISHER, publisherService.findAll(), PublisherDto::getId);
+        logger.info("Reference data caches warmed up: {} genres, {} languages, {} publishers",
+                genres, languages, publishers);
+    }
+
+    private <T> int putById(String cacheName, List<T> items, ToIntFunction<T> id) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+        items.forEach(item -> cache.put(id.applyAsInt(item), item));
+        return items.size();
+    }
+}
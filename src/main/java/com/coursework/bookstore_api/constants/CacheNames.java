@@ -0,0 +1,17 @@
+package com.coursework.bookstore_api.constants;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class CacheNames {
+    public static final String GENRES = "genres";
+    public static final String GENRE = "genre";
+    public static final String LANGUAGES = "languages";
+    public static final String LANGUAGE = "language";
+    public static final String PUBLISHERS = "publishers";
+    public static final String PUBLISHER = "publisher";
+    public static final String BOOK_DETAILS = "bookDetails";
+
+    // Key of the single entry in the find-all caches
+    public static final String ALL = "all";
+}
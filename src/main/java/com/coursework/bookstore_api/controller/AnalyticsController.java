@@ -0,0 +1,107 @@
+package com.coursework.bookstore_api.controller;
+
+import com.coursework.bookstore_api.dto.DailySalesDto;
+import com.coursework.bookstore_api.dto.SalesDto;
+import com.coursework.bookstore_api.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin
+@Tag(name = "AnalyticsController", description = "Provides sales figures from the pre-aggregated rollups")
+public class AnalyticsController {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/analytics/daily")
+    @Operation(summary = "Finding the orders and revenue per day",
+            description = "Gets the number of orders and the revenue of every day from (inclusive) to (exclusive). " +
+                    "Orders are included about two refresh intervals after they are placed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = DailySalesDto[].class))
+            })
+    })
+    public ResponseEntity<List<DailySalesDto>> getDailySales(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("Getting daily sales from: {}, to: {}", from, to);
+        return ResponseEntity.ok(analyticsService.findDailySales(from, to));
+    }
+
+    @GetMapping("/analytics/books")
+    @Operation(summary = "Finding the books with the highest revenue",
+            description = "Gets the units sold and revenue of the top books by revenue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = SalesDto[].class))
+            })
+    })
+    public ResponseEntity<List<SalesDto>> getTopBooks(
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit) {
+        logger.info("Getting the top {} books by revenue", limit);
+        return ResponseEntity.ok(analyticsService.findTopBooks(limit));
+    }
+
+    @GetMapping("/analytics/publishers")
+    @Operation(summary = "Finding the publishers with the highest revenue",
+            description = "Gets the units sold and revenue of the top publishers by revenue")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = SalesDto[].class))
+            })
+    })
+    public ResponseEntity<List<SalesDto>> getTopPublishers(
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit) {
+        logger.info("Getting the top {} publishers by revenue", limit);
+        return ResponseEntity.ok(analyticsService.findTopPublishers(limit));
+    }
+
+    @GetMapping("/analytics/genres")
+    @Operation(summary = "Finding the genres with the highest revenue",
+            description = "Gets the units sold and revenue of the top genres by revenue. A book in several genres " +
+                    "counts towards each of them")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = SalesDto[].class))
+            })
+    })
+    public ResponseEntity<List<SalesDto>> getTopGenres(
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit) {
+        logger.info("Getting the top {} genres by revenue", limit);
+        return ResponseEntity.ok(analyticsService.findTopGenres(limit));
+    }
+
+    @PostMapping("/analytics/rebuild")
+    @Operation(summary = "Rebuilding the sales rollups",
+            description = "Empties the rollups, which the scheduled refresh then recomputes from the whole order " +
+                    "history. Needed after orders were changed or deleted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Accepted")
+    })
+    public ResponseEntity<Void> rebuild() {
+        logger.info("Rebuilding the sales rollups");
+        analyticsService.rebuild();
+        return ResponseEntity.accepted().build();
+    }
+}
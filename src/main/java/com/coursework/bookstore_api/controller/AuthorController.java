@@ -3,6 +3,8 @@ package com.coursework.bookstore_api.controller;
 import com.coursework.bookstore_api.dto.AuthorDto;
 import com.coursework.bookstore_api.dto.response.AuthorsResponse;
 import com.coursework.bookstore_api.service.AuthorService;
+import com.coursework.bookstore_api.service.CatalogVersionService;
+import com.coursework.bookstore_api.util.ConditionalResponses;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,6 +17,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,6 +30,7 @@ public class AuthorController {
     private static final Logger logger = LoggerFactory.getLogger(AuthorController.class);
 
     private final AuthorService authorService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping("/authors/all")
     @Operation(summary = "Finding all the authors from the DB",
@@ -37,14 +41,16 @@ public class AuthorController {
                     @Schema(implementation = AuthorDto[].class))
             })
     })
-    public ResponseEntity<List<AuthorDto>> getAuthors() {
+    public ResponseEntity<List<AuthorDto>> getAuthors(WebRequest request) {
         logger.info("Getting all authors from the DB");
-        return ResponseEntity.ok(authorService.findAll());
+        String etag = catalogVersionService.collectionTag(CatalogVersionService.AUTHORS);
+        return ConditionalResponses.withETag(request, etag, authorService::findAll);
     }
 
     @GetMapping("/authors")
     @Operation(summary = "Finding a batch of authors from the DB",
-            description = "Gets a batch of authors from the DB")
+            description = "Gets a batch of authors from the DB. With keyset=true (or a cursor) the page is fetched " +
+                    "after the given continuation token, without a COUNT query")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok", content = {
                     @Content(mediaType = "application/json", schema =
@@ -53,8 +59,14 @@ public class AuthorController {
     })
     public ResponseEntity<AuthorsResponse> getAuthors(
             @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
-            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
+            @RequestParam(value = "keyset", defaultValue = "false", required = false) boolean keyset,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
+        if (keyset || cursor != null) {
+            logger.info("Getting a batch of authors from the DB after cursor: {} with pageSize: {}", cursor, pageSize);
+            return ResponseEntity.ok(authorService.findAllAfter(cursor, pageSize));
+        }
         logger.info("Getting a batch of authors from the DB with pageNo: {} and pageSize: {}", pageNo, pageSize);
         return ResponseEntity.ok(authorService.findAll(pageNo, pageSize));
     }
@@ -68,9 +80,10 @@ public class AuthorController {
                     @Schema(implementation = AuthorDto.class))
             })
     })
-    public ResponseEntity<AuthorDto> getAuthor(@PathVariable int authorId) {
+    public ResponseEntity<AuthorDto> getAuthor(@PathVariable int authorId, WebRequest request) {
         logger.info("Getting an author from the DB by id: {}", authorId);
-        return ResponseEntity.ok(authorService.findById(authorId));
+        String etag = catalogVersionService.resourceTag(CatalogVersionService.AUTHORS, authorId);
+        return ConditionalResponses.withETag(request, etag, () -> authorService.findById(authorId));
     }
 
     @PostMapping("/authors")
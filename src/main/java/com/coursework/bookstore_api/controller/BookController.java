@@ -1,9 +1,16 @@
 package com.coursework.bookstore_api.controller;
 
+import com.coursework.bookstore_api.bookimport.BookImportFormat;
 import com.coursework.bookstore_api.dto.BookDto;
+import com.coursework.bookstore_api.dto.BookImportReportDto;
+import com.coursework.bookstore_api.dto.SuggestionDto;
 import com.coursework.bookstore_api.dto.request.BookRequest;
 import com.coursework.bookstore_api.dto.response.BooksResponse;
+import com.coursework.bookstore_api.exceptions.InvalidBookImportException;
+import com.coursework.bookstore_api.service.BookImportService;
 import com.coursework.bookstore_api.service.BookService;
+import com.coursework.bookstore_api.service.CatalogVersionService;
+import com.coursework.bookstore_api.util.ConditionalResponses;
 import com.coursework.bookstore_api.util.DatabaseTableSerializer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,18 +21,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.sql.SQLException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -37,7 +44,9 @@ public class BookController {
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
     private final DatabaseTableSerializer serializer;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping("/books/all")
     @Operation(summary = "Finding all the books from the DB",
@@ -55,7 +64,8 @@ public class BookController {
 
     @GetMapping("/books")
     @Operation(summary = "Finding batch of books from the DB",
-            description = "Gets a batch of books from the DB")
+            description = "Gets a batch of books from the DB. With keyset=true (or a cursor) the page is fetched " +
+                    "after the given continuation token, without a COUNT query")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok", content = {
                     @Content(mediaType = "application/json", schema =
@@ -64,9 +74,17 @@ public class BookController {
     })
     public ResponseEntity<BooksResponse> getBooks(
             @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
-            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize) {
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
+            @RequestParam(value = "keyset", defaultValue = "false", required = false) boolean keyset,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            WebRequest request) {
+        String etag = catalogVersionService.collectionTag(CatalogVersionService.BOOKS, pageNo, pageSize, keyset, cursor);
+        if (keyset || cursor != null) {
+            logger.info("Getting a batch of books from the DB after cursor: {}", cursor);
+            return ConditionalResponses.withETag(request, etag, () -> bookService.findAllAfter(cursor, pageSize));
+        }
         logger.info("Getting a batch of books from the DB");
-        return ResponseEntity.ok(bookService.findAll(pageNo, pageSize));
+        return ConditionalResponses.withETag(request, etag, () -> bookService.findAll(pageNo, pageSize));
     }
 
     @GetMapping("/books/{bookId}")
@@ -78,9 +96,10 @@ public class BookController {
                     @Schema(implementation = BookDto.class))
             })
     })
-    public ResponseEntity<BookDto> getBook(@PathVariable int bookId) {
+    public ResponseEntity<BookDto> getBook(@PathVariable int bookId, WebRequest request) {
         logger.info("Getting a book from the DB by id: {}", bookId);
-        return ResponseEntity.ok(bookService.findById(bookId));
+        String etag = catalogVersionService.resourceTag(CatalogVersionService.BOOKS, bookId);
+        return ConditionalResponses.withETag(request, etag, () -> bookService.findById(bookId));
     }
 
     @PostMapping("/books")
@@ -97,6 +116,33 @@ public class BookController {
         return new ResponseEntity<>(bookService.save(bookDto), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/books/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importing books in bulk",
+            description = "Imports a CSV (header row; title, isbn, authors, genres, publisher, language, price, " +
+                    "number_in_stock, image_url; several authors or genres separated by '|') or JSON (array of " +
+                    "objects with the same fields, authors and genres as arrays) file. Authors, genres, publishers " +
+                    "and languages are matched by name and created when missing; a book with a known ISBN is " +
+                    "updated. Invalid rows are skipped and listed in the report")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = BookImportReportDto.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Unknown file format")
+    })
+    public ResponseEntity<BookImportReportDto> importBooks(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format) {
+        BookImportFormat importFormat = BookImportFormat.detect(format, file.getOriginalFilename(), file.getContentType())
+                .orElseThrow(() -> new InvalidBookImportException("Unknown import format, expected csv or json"));
+        logger.info("Importing books from {} ({} bytes) as {}", file.getOriginalFilename(), file.getSize(), importFormat);
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(bookImportService.importBooks(input, importFormat));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @PutMapping("/books/{bookId}")
     @Operation(summary = "Updating an existing book",
             description = "Updates an existing book in the DB")
@@ -191,6 +237,23 @@ public class BookController {
         return ResponseEntity.ok(bookService.findAllByTitle(title, pageNo, pageSize));
     }
 
+    @GetMapping("/books/suggest")
+    @Operation(summary = "Suggesting titles and authors for a prefix",
+            description = "Gets up to limit (at most 50) book titles and author names starting with the prefix, " +
+                    "for the search box typeahead. Empty while the suggestion index is loading after a restart")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = SuggestionDto[].class))
+            })
+    })
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam(value = "q") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit) {
+        logger.info("Getting suggestions for prefix: {}", prefix);
+        return ResponseEntity.ok(bookService.suggest(prefix, limit));
+    }
+
     @GetMapping("/books/filter")
     @Operation(summary = "Finding books with multiple filters",
             description = "Gets books filtered by title, publisher, author, and/or genre")
@@ -221,10 +284,9 @@ public class BookController {
                     @Schema(implementation = BookDto[].class))
             })
     })
-    public ResponseEntity<Resource> downloadBooks() throws IOException, SQLException {
+    public ResponseEntity<StreamingResponseBody> downloadBooks() {
         logger.info("Downloading all books from the DB");
-        Path path = serializer.writeDbTableToCsvFile("book");
-        ByteArrayResource resource = new ByteArrayResource(Files.readAllBytes(path));
+        StreamingResponseBody body = outputStream -> serializer.writeDbTableToCsv("book", outputStream);
 
         HttpHeaders header = new HttpHeaders();
         header.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=book.csv");
@@ -234,8 +296,7 @@ public class BookController {
 
         return ResponseEntity.ok()
                 .headers(header)
-                .contentLength(resource.contentLength())
                 .contentType(MediaType.parseMediaType("application/octet-stream"))
-                .body(resource);
+                .body(body);
     }
 }
@@ -1,5 +1,6 @@
 package com.coursework.bookstore_api.controller;
 
+import com.coursework.bookstore_api.dto.response.OutOfStockResponse;
 import com.coursework.bookstore_api.exceptions.*;
 import com.coursework.bookstore_api.model.LogLevel;
 import com.coursework.bookstore_api.service.DatabaseLoggerService;
@@ -85,10 +86,64 @@ public class ExceptionController {
         return ResponseEntity.status(404).body(e.getMessage());
     }
 
-    @ExceptionHandler(OutOfStockException.class)
-    public ResponseEntity<String> outOfStockException(OutOfStockException e) {
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> invalidCursorException(InvalidCursorException e) {
+        log.error(e.getMessage());
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<String> invalidPageRequestException(InvalidPageRequestException e) {
+        log.error(e.getMessage());
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+
+    @ExceptionHandler(GenerationJobNotFoundException.class)
+    public ResponseEntity<String> generationJobNotFoundException(GenerationJobNotFoundException e) {
+        log.error(e.getMessage());
+        return ResponseEntity.status(404).body(e.getMessage());
+    }
+
+    @ExceptionHandler(GenerationJobRejectedException.class)
+    public ResponseEntity<String> generationJobRejectedException(GenerationJobRejectedException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(503).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidGenerationSettingsException.class)
+    public ResponseEntity<String> invalidGenerationSettingsException(InvalidGenerationSettingsException e) {
         log.error(e.getMessage());
-        databaseLoggerService.saveLog(LogLevel.ERROR, log.getName(), e.getMessage());
         return ResponseEntity.status(400).body(e.getMessage());
     }
+
+    @ExceptionHandler(InvalidOrderException.class)
+    public ResponseEntity<String> invalidOrderException(InvalidOrderException e) {
+        log.error(e.getMessage());
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidReviewException.class)
+    public ResponseEntity<String> invalidReviewException(InvalidReviewException e) {
+        log.error(e.getMessage());
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidBookImportException.class)
+    public ResponseEntity<String> invalidBookImportException(InvalidBookImportException e) {
+        log.error(e.getMessage());
+        return ResponseEntity.status(400).body(e.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> idempotencyKeyReusedException(IdempotencyKeyReusedException e) {
+        log.error(e.getMessage());
+        return ResponseEntity.status(422).body(e.getMessage());
+    }
+
+    @ExceptionHandler(OutOfStockException.class)
+    public ResponseEntity<OutOfStockResponse> outOfStockException(OutOfStockException e) {
+        log.error("{}: {}", e.getMessage(), e.getShortages());
+        databaseLoggerService.saveLog(LogLevel.ERROR, log.getName(), e.getMessage());
+        return ResponseEntity.status(400).body(new OutOfStockResponse(e.getMessage(), e.getShortages()));
+    }
 }
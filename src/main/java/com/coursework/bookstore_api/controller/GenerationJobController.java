@@ -0,0 +1,71 @@
+package com.coursework.bookstore_api.controller;
+
+import com.coursework.bookstore_api.dto.GenerationJobDto;
+import com.coursework.bookstore_api.service.GenerationJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin
+@Tag(name = "GenerationJobController", description = "Provides status and cancellation of background data generation jobs")
+public class GenerationJobController {
+    private static final Logger logger = LoggerFactory.getLogger(GenerationJobController.class);
+
+    private final GenerationJobService generationJobService;
+
+    @GetMapping("/jobs")
+    @Operation(summary = "Finding all the generation jobs",
+            description = "Gets all running, queued and recently finished generation jobs, newest first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = GenerationJobDto[].class))
+            })
+    })
+    public ResponseEntity<List<GenerationJobDto>> getJobs() {
+        return ResponseEntity.ok(generationJobService.findAll());
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Finding a specific generation job",
+            description = "Gets the status, progress and throughput of a generation job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = GenerationJobDto.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<GenerationJobDto> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(generationJobService.findById(jobId));
+    }
+
+    @PostMapping("/jobs/{jobId}/cancel")
+    @Operation(summary = "Cancelling a generation job",
+            description = "Cancels a queued job, or stops a running one before its next batch. " +
+                    "Rows from already committed batches are kept")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = GenerationJobDto.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<GenerationJobDto> cancelJob(@PathVariable String jobId) {
+        logger.info("Cancelling generation job with id: {}", jobId);
+        return ResponseEntity.ok(generationJobService.cancel(jobId));
+    }
+}
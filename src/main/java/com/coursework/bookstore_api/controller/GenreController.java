@@ -1,7 +1,9 @@
 package com.coursework.bookstore_api.controller;
 
 import com.coursework.bookstore_api.dto.GenreDto;
+import com.coursework.bookstore_api.service.CatalogVersionService;
 import com.coursework.bookstore_api.service.GenreService;
+import com.coursework.bookstore_api.util.ConditionalResponses;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +29,7 @@ public class GenreController {
     private static final Logger logger = LoggerFactory.getLogger(GenreController.class);
 
     private final GenreService genreService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping("/genres")
     @Operation(summary = "Finding all the genres from the DB",
@@ -36,9 +40,10 @@ public class GenreController {
                     @Schema(implementation = GenreDto[].class))
             })
     })
-    public ResponseEntity<List<GenreDto>> getGenres() {
+    public ResponseEntity<List<GenreDto>> getGenres(WebRequest request) {
         logger.info("Getting all genres from the DB");
-        return ResponseEntity.ok(genreService.findAll());
+        String etag = catalogVersionService.collectionTag(CatalogVersionService.GENRES);
+        return ConditionalResponses.withETag(request, etag, genreService::findAll);
     }
 
     @GetMapping("/genres/{genreId}")
@@ -50,9 +55,10 @@ public class GenreController {
                     @Schema(implementation = GenreDto.class))
             })
     })
-    public ResponseEntity<GenreDto> getGenre(@PathVariable int genreId) {
+    public ResponseEntity<GenreDto> getGenre(@PathVariable int genreId, WebRequest request) {
         logger.info("Getting a genre from the DB by id: {}", genreId);
-        return ResponseEntity.ok(genreService.findById(genreId));
+        String etag = catalogVersionService.resourceTag(CatalogVersionService.GENRES, genreId);
+        return ConditionalResponses.withETag(request, etag, () -> genreService.findById(genreId));
     }
 
     @PostMapping("/genres")
@@ -1,7 +1,9 @@
 package com.coursework.bookstore_api.controller;
 
 import com.coursework.bookstore_api.dto.LanguageDto;
+import com.coursework.bookstore_api.service.CatalogVersionService;
 import com.coursework.bookstore_api.service.LanguageService;
+import com.coursework.bookstore_api.util.ConditionalResponses;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +29,7 @@ public class LanguageController {
     private static final Logger logger = LoggerFactory.getLogger(LanguageController.class);
 
     private final LanguageService languageService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping("/languages")
     @Operation(summary = "Finding all the languages from the DB",
@@ -36,9 +40,10 @@ public class LanguageController {
                     @Schema(implementation = LanguageDto[].class))
             })
     })
-    public ResponseEntity<List<LanguageDto>> getLanguages() {
+    public ResponseEntity<List<LanguageDto>> getLanguages(WebRequest request) {
         logger.info("Getting all languages from the DB");
-        return ResponseEntity.ok(languageService.findAll());
+        String etag = catalogVersionService.collectionTag(CatalogVersionService.LANGUAGES);
+        return ConditionalResponses.withETag(request, etag, languageService::findAll);
     }
 
     @GetMapping("/languages/{languageId}")
@@ -50,9 +55,10 @@ public class LanguageController {
                     @Schema(implementation = LanguageDto.class))
             })
     })
-    public ResponseEntity<LanguageDto> getLanguage(@PathVariable int languageId) {
+    public ResponseEntity<LanguageDto> getLanguage(@PathVariable int languageId, WebRequest request) {
         logger.info("Getting a language from the DB by id: {}", languageId);
-        return ResponseEntity.ok(languageService.findById(languageId));
+        String etag = catalogVersionService.resourceTag(CatalogVersionService.LANGUAGES, languageId);
+        return ConditionalResponses.withETag(request, etag, () -> languageService.findById(languageId));
     }
 
     @PostMapping("/languages")
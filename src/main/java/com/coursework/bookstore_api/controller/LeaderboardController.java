@@ -0,0 +1,60 @@
+package com.coursework.bookstore_api.controller;
+
+import com.coursework.bookstore_api.dto.LeaderboardEntryDto;
+import com.coursework.bookstore_api.service.LeaderboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin
+@Tag(name = "LeaderboardController", description = "Provides the bestseller and most reviewed book rankings")
+public class LeaderboardController {
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardController.class);
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping("/leaderboards/bestsellers")
+    @Operation(summary = "Finding the bestselling books",
+            description = "Gets the books with the most units sold, refreshed every few seconds. " +
+                    "At most leaderboards.size books are ranked")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = LeaderboardEntryDto[].class))
+            })
+    })
+    public ResponseEntity<List<LeaderboardEntryDto>> getBestsellers(
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit) {
+        logger.info("Getting the top {} bestsellers", limit);
+        return ResponseEntity.ok(leaderboardService.findBestsellers(limit));
+    }
+
+    @GetMapping("/leaderboards/most-reviewed")
+    @Operation(summary = "Finding the most reviewed books",
+            description = "Gets the books with the most reviews, refreshed every few seconds. " +
+                    "At most leaderboards.size books are ranked")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = LeaderboardEntryDto[].class))
+            })
+    })
+    public ResponseEntity<List<LeaderboardEntryDto>> getMostReviewed(
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit) {
+        logger.info("Getting the top {} most reviewed books", limit);
+        return ResponseEntity.ok(leaderboardService.findMostReviewed(limit));
+    }
+}
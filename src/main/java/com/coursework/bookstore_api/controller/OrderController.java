@@ -1,8 +1,14 @@
 package com.coursework.bookstore_api.controller;
 
+import com.coursework.bookstore_api.dto.GenerationJobDto;
 import com.coursework.bookstore_api.dto.OrderDto;
+import com.coursework.bookstore_api.dto.response.OrderSummariesResponse;
+import com.coursework.bookstore_api.dto.response.OrdersResponse;
+import com.coursework.bookstore_api.repository.OrderFilter;
+import com.coursework.bookstore_api.service.IdempotencyService;
 import com.coursework.bookstore_api.service.OrderService;
 import com.coursework.bookstore_api.util.OrdersSerializer;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,18 +18,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.net.URI;
+import java.util.Date;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api")
@@ -34,10 +40,13 @@ public class OrderController {
     private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrdersSerializer ordersSerializer;
 
     @GetMapping("/orders")
-    @Operation(summary = "Finding all the orders from the DB",
-            description = "Gets all existing orders from the DB")
+    @Operation(summary = "Finding the newest orders from the DB",
+            description = "Gets the 1000 newest orders from the DB. Deprecated: use /orders/page, which pages " +
+                    "through all the orders", deprecated = true)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok", content = {
                     @Content(mediaType = "application/json", schema =
@@ -45,13 +54,42 @@ public class OrderController {
             })
     })
     public ResponseEntity<List<OrderDto>> getOrders() {
-        logger.info("Getting all orders from the DB");
+        logger.info("Getting the newest orders from the DB");
         return ResponseEntity.ok(orderService.findAll());
     }
 
+    @GetMapping("/orders/page")
+    @Operation(summary = "Finding a filtered batch of orders from the DB",
+            description = "Gets a batch of orders, newest first, optionally filtered by payment date range " +
+                    "(from inclusive, to exclusive, ISO date-time), customer and amount range. The next batch is " +
+                    "fetched with the returned cursor; totals are not counted and reported as -1")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = OrdersResponse.class))
+            })
+    })
+    public ResponseEntity<OrdersResponse> getOrdersPage(
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(value = "customerId", required = false) Integer customerId,
+            @RequestParam(value = "minAmount", required = false) Double minAmount,
+            @RequestParam(value = "maxAmount", required = false) Double maxAmount,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "50", required = false) int pageSize) {
+        logger.info("Getting a batch of orders from: {}, to: {}, customerId: {}, amount: {}-{}, after cursor: {}",
+                from, to, customerId, minAmount, maxAmount, cursor);
+        OrderFilter filter = new OrderFilter(from, to, customerId, minAmount, maxAmount);
+        return ResponseEntity.ok(orderService.findAll(filter, cursor, pageSize));
+    }
+
     @GetMapping("/orders-history")
-    @Operation(summary = "Finding all the orders for the current user",
-            description = "Gets all existing orders for the current user from the DB")
+    @Operation(summary = "Finding the newest orders of a customer",
+            description = "Gets the 1000 newest orders of the customer with their items. Deprecated: use " +
+                    "/orders-history/page, which pages through all of them",
+            deprecated = true)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok", content = {
                     @Content(mediaType = "application/json", schema =
@@ -59,10 +97,45 @@ public class OrderController {
             })
     })
     public ResponseEntity<List<OrderDto>> getOrdersByCustomerId(@RequestParam int customerId) {
-        logger.info("Getting all orders for customer with id: {}", customerId);
+        logger.info("Getting the newest orders for customer with id: {}", customerId);
         return ResponseEntity.ok(orderService.findAllByCustomerId(customerId));
     }
 
+    @GetMapping("/orders-history/page")
+    @Operation(summary = "Finding a page of the orders of a customer",
+            description = "Gets a page of the customer's orders with their items, most recent first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = OrdersResponse.class))
+            })
+    })
+    public ResponseEntity<OrdersResponse> getOrderHistoryPage(
+            @RequestParam int customerId,
+            @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize) {
+        logger.info("Getting a page of orders for customer with id: {}", customerId);
+        return ResponseEntity.ok(orderService.findHistory(customerId, pageNo, pageSize));
+    }
+
+    @GetMapping("/orders-history/summary")
+    @Operation(summary = "Finding a page of order summaries of a customer",
+            description = "Gets the id, date, amount and item count of a page of the customer's orders, " +
+                    "most recent first, without their items")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = OrderSummariesResponse.class))
+            })
+    })
+    public ResponseEntity<OrderSummariesResponse> getOrderHistorySummary(
+            @RequestParam int customerId,
+            @RequestParam(value = "pageNo", defaultValue = "0", required = false) int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "20", required = false) int pageSize) {
+        logger.info("Getting a page of order summaries for customer with id: {}", customerId);
+        return ResponseEntity.ok(orderService.findHistorySummary(customerId, pageNo, pageSize));
+    }
+
     @GetMapping("/orders/{orderId}")
     @Operation(summary = "Finding a specific order from the DB",
             description = "Gets a specific order by id from the DB")
@@ -79,14 +152,22 @@ public class OrderController {
 
     @PostMapping("/orders")
     @Operation(summary = "Creating a new order",
-            description = "Creates a new order in the DB")
+            description = "Creates a new order in the DB. With an Idempotency-Key header the order is placed once " +
+                    "per key, and retries with the same key get the original order back")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created", content = {
                     @Content(mediaType = "application/json", schema =
                     @Schema(implementation = OrderDto.class))
-            })
+            }),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different order")
     })
-    public ResponseEntity<OrderDto> createOrder(@RequestBody OrderDto orderDto) {
+    public ResponseEntity<OrderDto> createOrder(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody OrderDto orderDto) {
+        if (idempotencyKey != null) {
+            logger.info("Creating a new order in the DB with Idempotency-Key {}: {}", idempotencyKey, orderDto);
+            return new ResponseEntity<>(idempotencyService.placeOrder(idempotencyKey, orderDto), HttpStatus.CREATED);
+        }
         logger.info("Creating a new order in the DB: {}", orderDto);
         return new ResponseEntity<>(orderService.save(orderDto), HttpStatus.CREATED);
     }
@@ -119,40 +200,62 @@ public class OrderController {
 
     @GetMapping("/orders/download")
     @Operation(summary = "Downloading all the orders from the DB",
-            description = "Downloads all existing orders from the DB")
+            description = "Streams all existing orders from the DB as a JSON array, or as newline-delimited JSON " +
+                    "with format=ndjson, optionally gzip-compressed")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ok", content = {
                     @Content(mediaType = "application/json", schema =
                     @Schema(implementation = OrderDto[].class))
             })
     })
-    public ResponseEntity<Resource> downloadOrders() throws IOException {
-        logger.info("Downloading all orders from the DB");
-        Path path = OrdersSerializer.downloadJsonFile(orderService.findAll());
-        ByteArrayResource resource = new ByteArrayResource(Files.readAllBytes(path));
+    public ResponseEntity<StreamingResponseBody> downloadOrders(
+            @RequestParam(value = "format", defaultValue = "json", required = false) String format,
+            @RequestParam(value = "gzip", defaultValue = "false", required = false) boolean gzip) {
+        logger.info("Downloading all orders from the DB as {}, gzip: {}", format, gzip);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                ordersSerializer.writeOrders(gzipStream, ndjson);
+                gzipStream.finish();
+            } else {
+                ordersSerializer.writeOrders(outputStream, ndjson);
+            }
+        };
 
+        String filename = "orders." + (ndjson ? "ndjson" : "json") + (gzip ? ".gz" : "");
         HttpHeaders header = new HttpHeaders();
-        header.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=payment.csv");
+        header.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
         header.add("Cache-Control", "no-cache, no-store, must-revalidate");
         header.add("Pragma", "no-cache");
         header.add("Expires", "0");
 
         return ResponseEntity.ok()
                 .headers(header)
-                .contentLength(resource.contentLength())
                 .contentType(MediaType.parseMediaType("application/octet-stream"))
-                .body(resource);
+                .body(body);
     }
 
     @GetMapping("/orders/generate")
     @Operation(summary = "Generating orders",
-            description = "Generates orders in the DB")
+            description = "Starts a background job generating orders in the DB with batched inserts, optionally seeded " +
+                    "and in parallel workers. Progress can be polled at /api/jobs/{jobId}")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Ok")
+            @ApiResponse(responseCode = "202", description = "Accepted", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = GenerationJobDto.class))
+            }),
+            @ApiResponse(responseCode = "503", description = "Too many generation jobs running or queued")
     })
-    public ResponseEntity<String> generateOrders(@RequestParam(name = "ordersCount") int ordersCount) {
-        logger.info("Generating {} orders", ordersCount);
-        orderService.generateOrders(ordersCount);
-        return ResponseEntity.ok("Orders generated");
+    public ResponseEntity<GenerationJobDto> generateOrders(
+            @RequestParam(name = "ordersCount") int ordersCount,
+            @RequestParam(name = "seed", required = false) Long seed,
+            @RequestParam(name = "workers", defaultValue = "1", required = false) int workers) {
+        logger.info("Generating {} orders with seed: {} and workers: {}", ordersCount, seed, workers);
+        GenerationJobDto job = orderService.generateOrders(new GenerationSettings(ordersCount, seed, workers));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(job);
     }
 }
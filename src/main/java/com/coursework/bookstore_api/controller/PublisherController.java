@@ -1,7 +1,9 @@
 package com.coursework.bookstore_api.controller;
 
 import com.coursework.bookstore_api.dto.PublisherDto;
+import com.coursework.bookstore_api.service.CatalogVersionService;
 import com.coursework.bookstore_api.service.PublisherService;
+import com.coursework.bookstore_api.util.ConditionalResponses;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -26,6 +29,7 @@ public class PublisherController {
     private static final Logger logger = LoggerFactory.getLogger(PublisherController.class);
 
     private final PublisherService publisherService;
+    private final CatalogVersionService catalogVersionService;
 
     @GetMapping("/publishers")
     @Operation(summary = "Finding all the publishers from the DB",
@@ -36,9 +40,10 @@ public class PublisherController {
                     @Schema(implementation = PublisherDto[].class))
             })
     })
-    public ResponseEntity<List<PublisherDto>> getPublishers() {
+    public ResponseEntity<List<PublisherDto>> getPublishers(WebRequest request) {
         logger.info("Getting all publishers from the DB");
-        return ResponseEntity.ok(publisherService.findAll());
+        String etag = catalogVersionService.collectionTag(CatalogVersionService.PUBLISHERS);
+        return ConditionalResponses.withETag(request, etag, publisherService::findAll);
     }
 
     @GetMapping("/publishers/{publisherId}")
@@ -50,9 +55,10 @@ public class PublisherController {
                     @Schema(implementation = PublisherDto.class))
             })
     })
-    public ResponseEntity<PublisherDto> getPublisher(@PathVariable int publisherId) {
+    public ResponseEntity<PublisherDto> getPublisher(@PathVariable int publisherId, WebRequest request) {
         logger.info("Getting a publisher from the DB by id: {}", publisherId);
-        return ResponseEntity.ok(publisherService.findById(publisherId));
+        String etag = catalogVersionService.resourceTag(CatalogVersionService.PUBLISHERS, publisherId);
+        return ConditionalResponses.withETag(request, etag, () -> publisherService.findById(publisherId));
     }
 
     @PostMapping("/publishers")
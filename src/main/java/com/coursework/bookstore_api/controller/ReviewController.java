@@ -1,7 +1,10 @@
 package com.coursework.bookstore_api.controller;
 
+import com.coursework.bookstore_api.dto.GenerationJobDto;
 import com.coursework.bookstore_api.dto.ReviewDto;
+import com.coursework.bookstore_api.dto.response.ReviewsResponse;
 import com.coursework.bookstore_api.service.ReviewService;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -9,10 +12,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -21,6 +27,8 @@ import java.util.List;
 @CrossOrigin
 @Tag(name = "ReviewController", description = "Provides all operations with reviews")
 public class ReviewController {
+    private static final Logger logger = LoggerFactory.getLogger(ReviewController.class);
+
     private final ReviewService reviewService;
 
     @GetMapping("/reviews")
@@ -49,6 +57,26 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.findById(reviewId));
     }
 
+    @GetMapping("/books/{bookId}/reviews")
+    @Operation(summary = "Finding the reviews of a book",
+            description = "Gets a page of a book's reviews, newest first, with the reviewer names. The next page is " +
+                    "fetched with the returned continuation token, without a COUNT query; the book's review count " +
+                    "is part of the book itself")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ok", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = ReviewsResponse.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "Book not found")
+    })
+    public ResponseEntity<ReviewsResponse> getBookReviews(
+            @PathVariable int bookId,
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        logger.info("Getting a batch of reviews of book {} after cursor: {} with pageSize: {}", bookId, cursor, pageSize);
+        return ResponseEntity.ok(reviewService.findByBookId(bookId, cursor, pageSize));
+    }
+
     @PostMapping("/reviews")
     @Operation(summary = "Creating a new review",
             description = "Creates a new review in the DB")
@@ -88,12 +116,22 @@ public class ReviewController {
 
     @GetMapping("/reviews/generate")
     @Operation(summary = "Generating reviews",
-            description = "Generates reviews in the DB")
+            description = "Starts a background job generating reviews in the DB with batched inserts, optionally seeded " +
+                    "and in parallel workers. Progress can be polled at /api/jobs/{jobId}")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Ok")
+            @ApiResponse(responseCode = "202", description = "Accepted", content = {
+                    @Content(mediaType = "application/json", schema =
+                    @Schema(implementation = GenerationJobDto.class))
+            }),
+            @ApiResponse(responseCode = "503", description = "Too many generation jobs running or queued")
     })
-    public ResponseEntity<String> generateReviews(@RequestParam(name = "reviewsCount") int reviewsCount) {
-        reviewService.generateReviews(reviewsCount);
-        return ResponseEntity.ok("Reviews generated");
+    public ResponseEntity<GenerationJobDto> generateReviews(
+            @RequestParam(name = "reviewsCount") int reviewsCount,
+            @RequestParam(name = "seed", required = false) Long seed,
+            @RequestParam(name = "workers", defaultValue = "1", required = false) int workers) {
+        GenerationJobDto job = reviewService.generateReviews(new GenerationSettings(reviewsCount, seed, workers));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/" + job.getId()))
+                .body(job);
     }
 }
\ No newline at end of file
@@ -2,8 +2,6 @@ package com.coursework.bookstore_api.dto;
 
 import com.coursework.bookstore_api.model.Author;
 import com.coursework.bookstore_api.model.Book;
-import com.coursework.bookstore_api.model.Genre;
-import com.coursework.bookstore_api.model.Review;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -13,6 +11,7 @@ import java.util.List;
 public class BookDto {
     private int id;
     private String title;
+    private String isbn;
     private List<String> authorNames = new ArrayList<>();
     private List<Integer> authorIds = new ArrayList<>();
     private String publisher;
@@ -24,27 +23,36 @@ public class BookDto {
     private int languageId;
     private List<String> genreNames = new ArrayList<>();
     private List<Integer> genreIds = new ArrayList<>();
-    private List<Integer> reviewIds = new ArrayList<>();
+    // Reviews themselves are paged through /api/books/{id}/reviews
+    private BookRatingDto rating = BookRatingDto.empty();
 
     public static BookDto from(Book book) {
+        return from(book,
+                LanguageDto.from(book.getLanguage()),
+                PublisherDto.from(book.getPublisher()),
+                book.getGenres().stream().map(GenreDto::from).toList());
+    }
+
+    /**
+     * Builds the dto with language, publisher and genres taken from the given (possibly cached) dtos instead of
+     * the book's associations, which may be uninitialized references.
+     */
+    public static BookDto from(Book book, LanguageDto language, PublisherDto publisher, List<GenreDto> genres) {
         BookDto dto = new BookDto();
         dto.id = book.getId();
         dto.title = book.getTitle();
+        dto.isbn = book.getIsbn();
         dto.authorNames = book.getAuthors().stream().map(Author::getName).toList();
         dto.authorIds = book.getAuthors().stream().map(Author::getId).toList();
-        dto.publisher = book.getPublisher().getPublisherName();
-        dto.publisherId = String.valueOf(book.getPublisher().getId());
+        dto.publisher = publisher.getPublisherName();
+        dto.publisherId = String.valueOf(publisher.getId());
         dto.price = book.getPrice();
         dto.numberInStock = book.getNumberInStock();
         dto.imageUrl = book.getImageUrl();
-        dto.language = book.getLanguage().getLanguage();
-        dto.languageId = book.getLanguage().getId();
-        dto.genreNames = book.getGenres().stream().map(Genre::getGenreName).toList();
-        dto.genreIds = book.getGenres().stream().map(Genre::getId).toList();
-        if (book.getReviews() == null)
-            dto.reviewIds = new ArrayList<>();
-        else
-            dto.reviewIds = book.getReviews().stream().map(Review::getId).toList();
+        dto.language = language.getLanguage();
+        dto.languageId = language.getId();
+        dto.genreNames = genres.stream().map(GenreDto::getGenreName).toList();
+        dto.genreIds = genres.stream().map(GenreDto::getId).toList();
         return dto;
     }
 
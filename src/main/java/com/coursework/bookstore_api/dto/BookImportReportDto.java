@@ -0,0 +1,29 @@
+package com.coursework.bookstore_api.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk book import. Rows that failed are listed with their row number (counted from 1, without the
+ * CSV header) up to the configured limit; errorsTruncated tells that there were more.
+ */
+@Data
+public class BookImportReportDto {
+    private long rowsRead;
+    private long booksCreated;
+    private long booksUpdated;
+    private long rowsFailed;
+    private long referencesCreated;
+    private long durationMs;
+    private double booksPerSecond;
+    // False when the file turned out to be malformed and the import stopped at that point
+    private boolean completed;
+    private String abortReason;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.coursework.bookstore_api.dto;
+
+import com.coursework.bookstore_api.model.BookRating;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Review count and rating summary of a book. averageRating is null while the book has no rated reviews;
+ * histogram holds the number of 1 to 5 star ratings.
+ */
+@Data
+public class BookRatingDto {
+    private long reviewCount;
+    private long ratingCount;
+    private Double averageRating;
+    private List<Long> histogram = List.of(0L, 0L, 0L, 0L, 0L);
+
+    public static BookRatingDto empty() {
+        return new BookRatingDto();
+    }
+
+    public static BookRatingDto from(BookRating rating) {
+        BookRatingDto dto = new BookRatingDto();
+        dto.reviewCount = rating.getReviewCount();
+        dto.ratingCount = rating.getRatingCount();
+        dto.averageRating = rating.getRatingCount() == 0
+                ? null
+                : (double) rating.getRatingSum() / rating.getRatingCount();
+        dto.histogram = List.of(rating.getRating1(), rating.getRating2(), rating.getRating3(), rating.getRating4(),
+                rating.getRating5());
+        return dto;
+    }
+}
@@ -0,0 +1,20 @@
+package com.coursework.bookstore_api.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class DailySalesDto {
+    private LocalDate date;
+    private long orderCount;
+    private double revenue;
+
+    public static DailySalesDto of(LocalDate date, long orderCount, double revenue) {
+        DailySalesDto dto = new DailySalesDto();
+        dto.date = date;
+        dto.orderCount = orderCount;
+        dto.revenue = revenue;
+        return dto;
+    }
+}
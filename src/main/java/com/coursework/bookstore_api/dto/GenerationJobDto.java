@@ -0,0 +1,54 @@
+package com.coursework.bookstore_api.dto;
+
+import com.coursework.bookstore_api.util.datageneration.GenerationJob;
+import com.coursework.bookstore_api.util.datageneration.GenerationJobStatus;
+import com.coursework.bookstore_api.util.datageneration.GenerationProgress;
+import com.coursework.bookstore_api.util.datageneration.GenerationReport;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class GenerationJobDto {
+    private String id;
+    private String type;
+    private GenerationJobStatus status;
+    private long requestedRows;
+    private long generatedRows;
+    private double percentDone;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private Long seed;
+    private int workers;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public static GenerationJobDto from(GenerationJob job) {
+        GenerationJobDto dto = new GenerationJobDto();
+        GenerationProgress progress = job.getProgress();
+        dto.id = job.getId();
+        dto.type = job.getType();
+        dto.status = job.getStatus();
+        dto.requestedRows = progress.total();
+        dto.generatedRows = progress.rows();
+        dto.percentDone = progress.total() == 0 ? 100.0 : dto.generatedRows * 100.0 / progress.total();
+        dto.seed = job.getSettings().seed();
+        dto.workers = job.getSettings().workers();
+        dto.createdAt = job.getCreatedAt();
+        dto.startedAt = job.getStartedAt();
+        dto.finishedAt = job.getFinishedAt();
+        dto.error = job.getError();
+
+        GenerationReport report = job.getReport();
+        if (report != null) {
+            dto.elapsedMillis = report.millis();
+            dto.rowsPerSecond = report.rowsPerSecond();
+        } else if (dto.status == GenerationJobStatus.RUNNING) {
+            dto.elapsedMillis = progress.millis();
+            dto.rowsPerSecond = progress.rowsPerSecond();
+        }
+        return dto;
+    }
+}
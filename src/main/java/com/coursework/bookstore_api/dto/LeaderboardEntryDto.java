@@ -0,0 +1,21 @@
+package com.coursework.bookstore_api.dto;
+
+import com.coursework.bookstore_api.leaderboard.Leaderboard;
+import lombok.Data;
+
+@Data
+public class LeaderboardEntryDto {
+    private int rank;
+    private int bookId;
+    private String title;
+    private long count;
+
+    public static LeaderboardEntryDto from(int rank, Leaderboard.Entry entry) {
+        LeaderboardEntryDto dto = new LeaderboardEntryDto();
+        dto.rank = rank;
+        dto.bookId = entry.bookId();
+        dto.title = entry.title();
+        dto.count = entry.count();
+        return dto;
+    }
+}
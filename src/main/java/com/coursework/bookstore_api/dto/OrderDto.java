@@ -1,6 +1,8 @@
 package com.coursework.bookstore_api.dto;
 
 import com.coursework.bookstore_api.model.Order;
+import com.coursework.bookstore_api.repository.OrderBatchRepository.NewOrder;
+import com.coursework.bookstore_api.repository.projection.OrderRow;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -29,6 +31,29 @@ public class OrderDto {
         return dto;
     }
 
+    public static OrderDto from(OrderRow row, List<OrderItemDto> orderItems) {
+        OrderDto dto = new OrderDto();
+        dto.id = row.getId();
+        dto.amount = row.getAmount();
+        dto.paymentDate = row.getPaymentDate();
+        dto.customerId = row.getCustomerId();
+        dto.customerName = row.getCustomerName();
+        dto.orderItems = orderItems;
+        return dto;
+    }
+
+    public static OrderDto from(NewOrder order, String customerName, Date paymentDate,
+                                List<OrderItemDto> orderItems) {
+        OrderDto dto = new OrderDto();
+        dto.id = order.id();
+        dto.amount = order.amount();
+        dto.paymentDate = paymentDate;
+        dto.customerId = order.customerId();
+        dto.customerName = customerName;
+        dto.orderItems = orderItems;
+        return dto;
+    }
+
     public static Order toOrder(OrderDto dto) {
         Order order = new Order();
         order.setId(dto.id);
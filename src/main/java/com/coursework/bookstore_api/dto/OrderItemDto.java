@@ -2,6 +2,8 @@ package com.coursework.bookstore_api.dto;
 
 import com.coursework.bookstore_api.model.Book;
 import com.coursework.bookstore_api.model.OrderItem;
+import com.coursework.bookstore_api.repository.OrderBatchRepository.NewOrderItem;
+import com.coursework.bookstore_api.repository.projection.OrderItemRow;
 import lombok.Data;
 
 @Data
@@ -22,6 +24,26 @@ public class OrderItemDto {
         return dto;
     }
 
+    public static OrderItemDto from(OrderItemRow row) {
+        OrderItemDto dto = new OrderItemDto();
+        dto.id = row.getId();
+        dto.bookId = row.getBookId();
+        dto.bookTitle = row.getBookTitle();
+        dto.quantity = row.getQuantity();
+        dto.price = row.getPrice();
+        return dto;
+    }
+
+    public static OrderItemDto from(NewOrderItem item, String bookTitle) {
+        OrderItemDto dto = new OrderItemDto();
+        dto.id = item.id();
+        dto.bookId = item.bookId();
+        dto.bookTitle = bookTitle;
+        dto.quantity = item.quantity();
+        dto.price = item.price();
+        return dto;
+    }
+
     public static OrderItem toOrderItem(OrderItemDto dto, Book book) {
         OrderItem orderItem = new OrderItem();
         orderItem.setId(dto.id);
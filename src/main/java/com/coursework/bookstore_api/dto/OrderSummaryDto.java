@@ -0,0 +1,23 @@
+package com.coursework.bookstore_api.dto;
+
+import com.coursework.bookstore_api.repository.projection.OrderSummaryRow;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+public class OrderSummaryDto {
+    private int id;
+    private Date paymentDate;
+    private double amount;
+    private Integer itemCount;
+
+    public static OrderSummaryDto from(OrderSummaryRow row) {
+        OrderSummaryDto dto = new OrderSummaryDto();
+        dto.id = row.getId();
+        dto.paymentDate = row.getPaymentDate();
+        dto.amount = row.getAmount();
+        dto.itemCount = row.getItemCount();
+        return dto;
+    }
+}
@@ -1,12 +1,14 @@
 package com.coursework.bookstore_api.dto;
 
 import com.coursework.bookstore_api.model.Review;
+import com.coursework.bookstore_api.repository.projection.ReviewRow;
 import lombok.Data;
 
 @Data
 public class ReviewDto {
     private int id;
     private String text;
+    private Integer rating;
     private int reviewerId;
     private String reviewerName;
     private int bookId;
@@ -15,16 +17,29 @@ public class ReviewDto {
         ReviewDto dto = new ReviewDto();
         dto.id = review.getId();
         dto.text = review.getText();
+        dto.rating = review.getRating();
         dto.reviewerId = review.getReviewer().getId();
         dto.reviewerName = review.getReviewer().getUsername();
         dto.bookId = review.getBook().getId();
         return dto;
     }
 
+    public static ReviewDto from(ReviewRow row) {
+        ReviewDto dto = new ReviewDto();
+        dto.id = row.getId();
+        dto.text = row.getText();
+        dto.rating = row.getRating();
+        dto.reviewerId = row.getReviewerId() == null ? 0 : row.getReviewerId();
+        dto.reviewerName = row.getReviewerName();
+        dto.bookId = row.getBookId();
+        return dto;
+    }
+
     public static Review toReview(ReviewDto dto) {
         Review review = new Review();
         review.setId(dto.id);
         review.setText(dto.text);
+        review.setRating(dto.rating);
         return review;
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.coursework.bookstore_api.dto;
+
+import lombok.Data;
+
+/**
+ * Units sold and revenue of one book, publisher or genre.
+ */
+@Data
+public class SalesDto {
+    private int id;
+    private String name;
+    private long quantity;
+    private double revenue;
+
+    public static SalesDto of(int id, String name, long quantity, double revenue) {
+        SalesDto dto = new SalesDto();
+        dto.id = id;
+        dto.name = name;
+        dto.quantity = quantity;
+        dto.revenue = revenue;
+        return dto;
+    }
+}
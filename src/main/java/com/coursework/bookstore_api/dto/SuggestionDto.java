@@ -0,0 +1,20 @@
+package com.coursework.bookstore_api.dto;
+
+import com.coursework.bookstore_api.search.Suggestion;
+import com.coursework.bookstore_api.search.SuggestionType;
+import lombok.Data;
+
+@Data
+public class SuggestionDto {
+    private SuggestionType type;
+    private int id;
+    private String text;
+
+    public static SuggestionDto from(Suggestion suggestion) {
+        SuggestionDto dto = new SuggestionDto();
+        dto.type = suggestion.type();
+        dto.id = suggestion.id();
+        dto.text = suggestion.text();
+        return dto;
+    }
+}
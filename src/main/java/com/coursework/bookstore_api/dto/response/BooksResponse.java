@@ -17,4 +17,5 @@ public class BooksResponse {
     private long totalElements;
     private int totalPages;
     private boolean last;
+    private String nextCursor;
 }
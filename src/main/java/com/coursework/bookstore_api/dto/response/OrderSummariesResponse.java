@@ -0,0 +1,20 @@
+package com.coursework.bookstore_api.dto.response;
+
+import com.coursework.bookstore_api.dto.OrderSummaryDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummariesResponse {
+    private List<OrderSummaryDto> content;
+    private int pageNo;
+    private int pageSize;
+    private long totalElements;
+    private int totalPages;
+    private boolean last;
+}
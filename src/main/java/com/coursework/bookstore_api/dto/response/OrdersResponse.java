@@ -0,0 +1,21 @@
+package com.coursework.bookstore_api.dto.response;
+
+import com.coursework.bookstore_api.dto.OrderDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrdersResponse {
+    private List<OrderDto> content;
+    private int pageNo;
+    private int pageSize;
+    private long totalElements;
+    private int totalPages;
+    private boolean last;
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.coursework.bookstore_api.dto.response;
+
+import com.coursework.bookstore_api.exceptions.OutOfStockException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutOfStockResponse {
+    private String message;
+    private List<OutOfStockException.Shortage> shortages;
+}
@@ -0,0 +1,17 @@
+package com.coursework.bookstore_api.event;
+
+/**
+ * Published by the services whenever a book row, or data shown as part of a book (stock, reviews), changes.
+ * Stock and review changes leave the title, authors, genres and publisher alone; they are published as
+ * {@link #statsChanged} so that the search indexes can skip them.
+ */
+public record BookChangedEvent(int bookId, ChangeType type, boolean searchableFieldsChanged) {
+
+    public BookChangedEvent(int bookId, ChangeType type) {
+        this(bookId, type, true);
+    }
+
+    public static BookChangedEvent statsChanged(int bookId) {
+        return new BookChangedEvent(bookId, ChangeType.UPDATED, false);
+    }
+}
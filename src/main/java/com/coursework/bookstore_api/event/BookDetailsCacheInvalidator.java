@@ -0,0 +1,47 @@
+package com.coursework.bookstore_api.event;
+
+import com.coursework.bookstore_api.constants.CacheNames;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+
+/**
+ * Evicts cached book details after the change is committed, so a concurrent read can't put the old state back
+ * into the cache between the eviction and the commit. Events published outside a transaction are handled
+ * right away.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookDetailsCacheInvalidator {
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        bookDetails().evict(event.bookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.affectsBooks()) {
+            bookDetails().clear();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        bookDetails().clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookStatsChanged(BookStatsChangedEvent event) {
+        bookDetails().clear();
+    }
+
+    private Cache bookDetails() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheNames.BOOK_DETAILS));
+    }
+}
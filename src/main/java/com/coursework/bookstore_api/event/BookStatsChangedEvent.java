@@ -0,0 +1,8 @@
+package com.coursework.bookstore_api.event;
+
+/**
+ * Published when the stock, sales or reviews of many books change at once, e.g. after generating orders or
+ * reviews. Unlike {@link CatalogChangedEvent}, the searchable fields of the books are untouched.
+ */
+public record BookStatsChangedEvent(String reason) {
+}
@@ -0,0 +1,9 @@
+package com.coursework.bookstore_api.event;
+
+/**
+ * Published when a change may affect many books at once, e.g. a bulk book import, which may also create authors,
+ * genres, languages and publishers. Listeners should drop everything they derived from books. Sales and reviews
+ * are untouched.
+ */
+public record CatalogChangedEvent(String reason) {
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,9 @@
+package com.coursework.bookstore_api.event;
+
+import java.util.Map;
+
+/**
+ * Published when an order is placed, with the ordered quantity per book id.
+ */
+public record OrderPlacedEvent(int orderId, Map<Integer, Integer> quantities) {
+}
@@ -0,0 +1,12 @@
+package com.coursework.bookstore_api.event;
+
+/**
+ * Published by the author, genre, language and publisher services on every write. Updates and deletes also
+ * change every book that shows the reference.
+ */
+public record ReferenceDataChangedEvent(ReferenceType referenceType, int id, ChangeType type) {
+
+    public boolean affectsBooks() {
+        return type != ChangeType.CREATED;
+    }
+}
@@ -0,0 +1,8 @@
+package com.coursework.bookstore_api.event;
+
+public enum ReferenceType {
+    AUTHOR,
+    GENRE,
+    LANGUAGE,
+    PUBLISHER
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.event;
+
+/**
+ * Published when a review is written, edited or deleted.
+ */
+public record ReviewChangedEvent(int reviewId, int bookId, ChangeType type) {
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class GenerationJobNotFoundException extends RuntimeException {
+    public GenerationJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class GenerationJobRejectedException extends RuntimeException {
+    public GenerationJobRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
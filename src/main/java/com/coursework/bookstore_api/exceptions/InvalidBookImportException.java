@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class InvalidBookImportException extends RuntimeException {
+    public InvalidBookImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class InvalidGenerationSettingsException extends RuntimeException {
+    public InvalidGenerationSettingsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class InvalidOrderException extends RuntimeException {
+    public InvalidOrderException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.exceptions;
+
+public class InvalidReviewException extends RuntimeException {
+    public InvalidReviewException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,22 @@
 package com.coursework.bookstore_api.exceptions;
 
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
 public class OutOfStockException extends RuntimeException {
+    private final List<Shortage> shortages;
+
+    public record Shortage(int bookId, int requested, int available) {
+    }
+
     public OutOfStockException(String message) {
+        this(message, List.of());
+    }
+
+    public OutOfStockException(String message, List<Shortage> shortages) {
         super(message);
+        this.shortages = shortages;
     }
 }
@@ -0,0 +1,126 @@
+package com.coursework.bookstore_api.leaderboard;
+
+import com.coursework.bookstore_api.event.BookChangedEvent;
+import com.coursework.bookstore_api.event.BookStatsChangedEvent;
+import com.coursework.bookstore_api.event.ChangeType;
+import com.coursework.bookstore_api.event.OrderPlacedEvent;
+import com.coursework.bookstore_api.event.ReviewChangedEvent;
+import com.coursework.bookstore_api.repository.LeaderboardRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bestsellers (units sold) and most reviewed books. Counters are recounted from the DB at startup, after bulk
+ * data generation and every {@code leaderboards.rebuild-interval} (which also corrects deleted orders), and are
+ * kept current in between from the order and review events. Recounts run on one background thread and requests
+ * made while one is pending are coalesced. Events that arrive during a recount are added on top of the recounted
+ * totals, so none is lost; an order committed just before the recount reads the DB but announced only after the
+ * recount started is counted twice until the next one.
+ */
+@Component
+public class BookLeaderboards {
+    private static final Logger logger = LoggerFactory.getLogger(BookLeaderboards.class);
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final Leaderboard bestsellers;
+    private final Leaderboard mostReviewed;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "leaderboards-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    public BookLeaderboards(LeaderboardRepository leaderboardRepository,
+                            @Value("${leaderboards.size:100}") int size) {
+        this.leaderboardRepository = leaderboardRepository;
+        this.bestsellers = new Leaderboard(size);
+        this.mostReviewed = new Leaderboard(size);
+    }
+
+    public List<Leaderboard.Entry> bestsellers(int limit) {
+        return bestsellers.top(limit);
+    }
+
+    public List<Leaderboard.Entry> mostReviewed(int limit) {
+        return mostReviewed.top(limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        rebuildInBackground();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboards.refresh-interval:PT10S}")
+    public void refreshTop() {
+        bestsellers.refreshTop(leaderboardRepository::findTitles);
+        mostReviewed.refreshTop(leaderboardRepository::findTitles);
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboards.rebuild-interval:PT6H}",
+            initialDelayString = "${leaderboards.rebuild-interval:PT6H}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        try {
+            Map<Integer, Long> unitsSoldBefore = bestsellers.counts();
+            bestsellers.reset(leaderboardRepository.countUnitsSold(), unitsSoldBefore);
+            Map<Integer, Long> reviewsBefore = mostReviewed.counts();
+            mostReviewed.reset(leaderboardRepository.countReviews(), reviewsBefore);
+            refreshTop();
+        } catch (RuntimeException e) {
+            logger.error("Failed to recount the leaderboards: {}", e.getMessage(), e);
+            return;
+        }
+        logger.info("Leaderboards recounted in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        event.quantities().forEach(bestsellers::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> mostReviewed.add(event.bookId(), 1);
+            case DELETED -> mostReviewed.add(event.bookId(), -1);
+            case UPDATED -> {
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            bestsellers.remove(event.bookId());
+            mostReviewed.remove(event.bookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookStatsChanged(BookStatsChangedEvent event) {
+        rebuildInBackground();
+    }
+
+    private void rebuildInBackground() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                // Cleared first, so that a request made during the recount schedules another one
+                rebuildScheduled.set(false);
+                rebuild();
+            });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.coursework.bookstore_api.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Concurrent counters per book id with a periodically extracted top-K. Writers only touch their book's counter;
+ * {@link #refreshTop} scans all counters with a K-sized heap and publishes an immutable snapshot, so reads
+ * cost O(K) and never contend with writers.
+ */
+public class Leaderboard {
+    public record Entry(int bookId, String title, long count) {
+    }
+
+    private record Candidate(int bookId, long count) {
+    }
+
+    private static final Comparator<Candidate> RANKING = Comparator.comparingLong(Candidate::count)
+            .thenComparing(Comparator.comparingInt(Candidate::bookId).reversed());
+
+    private final int capacity;
+    private final Map<Integer, LongAdder> counters = new ConcurrentHashMap<>();
+    private volatile List<Entry> top = List.of();
+
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void add(int bookId, long delta) {
+        counters.computeIfAbsent(bookId, id -> new LongAdder()).add(delta);
+    }
+
+    public void remove(int bookId) {
+        counters.remove(bookId);
+    }
+
+    /**
+     * Current value of every counter. Taken before recounting from the DB and passed to {@link #reset}.
+     */
+    public Map<Integer, Long> counts() {
+        Map<Integer, Long> counts = new HashMap<>();
+        counters.forEach((bookId, counter) -> counts.put(bookId, counter.sum()));
+        return counts;
+    }
+
+    /**
+     * Sets every counter to its recounted total plus whatever was added to it since {@code countsBefore} were
+     * taken. Counters are only ever added to, never replaced, so no concurrent {@link #add} is lost.
+     */
+    public void reset(Map<Integer, Long> totals, Map<Integer, Long> countsBefore) {
+        totals.forEach((bookId, total) -> counters.computeIfAbsent(bookId, id -> new LongAdder())
+                .add(total - countsBefore.getOrDefault(bookId, 0L)));
+        counters.forEach((bookId, counter) -> {
+            if (!totals.containsKey(bookId)) {
+                counter.add(-countsBefore.getOrDefault(bookId, 0L));
+            }
+        });
+    }
+
+    public List<Entry> top(int limit) {
+        List<Entry> current = top;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+
+    /**
+     * @param titles looks up the titles of the winning book ids; books it does not return are left out
+     */
+    public void refreshTop(Function<List<Integer>, Map<Integer, String>> titles) {
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(capacity + 1, RANKING);
+        counters.forEach((bookId, counter) -> {
+            long count = counter.sum();
+            if (count <= 0) {
+                return;
+            }
+            Candidate candidate = new Candidate(bookId, count);
+            if (heap.size() < capacity) {
+                heap.add(candidate);
+            } else if (RANKING.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+
+        List<Candidate> winners = new ArrayList<>(heap);
+        winners.sort(RANKING.reversed());
+        Map<Integer, String> names = winners.isEmpty()
+                ? Map.of()
+                : titles.apply(winners.stream().map(Candidate::bookId).toList());
+        top = winners.stream()
+                .filter(candidate -> names.containsKey(candidate.bookId()))
+                .map(candidate -> new Entry(candidate.bookId(), names.get(candidate.bookId()), candidate.count()))
+                .toList();
+    }
+}
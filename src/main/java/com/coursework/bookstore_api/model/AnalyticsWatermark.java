@@ -0,0 +1,32 @@
+package com.coursework.bookstore_api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "analytics_watermark")
+@Schema(name = "AnalyticsWatermark", description = "How far the sales rollups have been refreshed")
+public class AnalyticsWatermark {
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    // Orders with an id up to this one are included in the rollups
+    @Column(name = "last_payment_id", nullable = false)
+    private int lastPaymentId;
+
+    // Highest order id seen by the previous refresh, included by the next one
+    @Column(name = "settling_payment_id", nullable = false)
+    private int settlingPaymentId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -24,7 +24,7 @@ public class Author {
     @Column(name = "name")
     private String name;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
+    @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.DETACH, CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
     @JoinTable(name = "book_author", joinColumns = @JoinColumn(name = "author_id", referencedColumnName = "author_id"),
             inverseJoinColumns = @JoinColumn(name = "book_id", referencedColumnName = "book_id"))
     private List<Book> books = new ArrayList<>();
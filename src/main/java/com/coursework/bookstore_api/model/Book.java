@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,7 +17,8 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "book", indexes = {
-        @Index(name = "book_publisher_index", columnList = "publisher_id")
+        @Index(name = "book_publisher_index", columnList = "publisher_id"),
+        @Index(name = "book_isbn_index", columnList = "isbn", unique = true)
 })
 @Schema(name = "Book", description = "The book DB-entity")
 public class Book {
@@ -28,6 +30,10 @@ public class Book {
     @Column(name = "title")
     private String title;
 
+    // Set by bulk imports, which update the book with the same ISBN instead of adding a copy
+    @Column(name = "isbn")
+    private String isbn;
+
     @Column(name = "price")
     private double price;
 
@@ -37,14 +43,16 @@ public class Book {
     @Column(name = "image_url")
     private String imageUrl;
 
-    @ManyToMany(fetch = FetchType.EAGER,
+    @ManyToMany(fetch = FetchType.LAZY,
             cascade = {CascadeType.ALL})
+    @BatchSize(size = 100)
     @JoinTable(name = "book_author", joinColumns = @JoinColumn(name = "book_id", referencedColumnName = "book_id"),
             inverseJoinColumns = @JoinColumn(name = "author_id", referencedColumnName = "author_id"))
     private List<Author> authors = new ArrayList<>();
 
-    @ManyToMany(fetch = FetchType.EAGER,
+    @ManyToMany(fetch = FetchType.LAZY,
             cascade = {CascadeType.ALL})
+    @BatchSize(size = 100)
     @JoinTable(name = "book_genre", joinColumns = @JoinColumn(name = "book_id", referencedColumnName = "book_id"),
             inverseJoinColumns = @JoinColumn(name = "genre_id", referencedColumnName = "genre_id"))
     private List<Genre> genres = new ArrayList<>();
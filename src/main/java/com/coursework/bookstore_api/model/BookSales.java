@@ -0,0 +1,27 @@
+package com.coursework.bookstore_api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "sales_by_book", indexes = {
+        @Index(name = "idx_sales_by_book_revenue", columnList = "revenue")
+})
+@Schema(name = "BookSales", description = "Units sold and revenue per book, maintained by the analytics refresh")
+public class BookSales {
+    @Id
+    @Column(name = "book_id")
+    private int bookId;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+}
@@ -0,0 +1,24 @@
+package com.coursework.bookstore_api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "data_migration")
+@Schema(name = "DataMigration", description = "A one-off data migration that has been applied")
+public class DataMigration {
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
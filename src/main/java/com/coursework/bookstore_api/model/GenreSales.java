@@ -0,0 +1,27 @@
+package com.coursework.bookstore_api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "sales_by_genre", indexes = {
+        @Index(name = "idx_sales_by_genre_revenue", columnList = "revenue")
+})
+@Schema(name = "GenreSales", description = "Units sold and revenue per genre, maintained by the analytics refresh")
+public class GenreSales {
+    @Id
+    @Column(name = "genre_id")
+    private int genreId;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+}
@@ -14,7 +14,10 @@ import java.util.List;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "payment")
+@Table(name = "payment", indexes = {
+        @Index(name = "idx_payment_customer_date", columnList = "customer_id, payment_date"),
+        @Index(name = "idx_payment_date_id", columnList = "payment_date, payment_id")
+})
 @Schema(name = "Order", description = "The order DB-entity")
 public class Order {
     @Id
@@ -28,6 +31,11 @@ public class Order {
     @Column(name = "payment_date")
     private Date paymentDate;
 
+    // Number of order lines, kept on the order so that summaries never read order_item.
+    // Null for orders placed before the column existed until OrderItemCountBackfill has run.
+    @Column(name = "item_count")
+    private Integer itemCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
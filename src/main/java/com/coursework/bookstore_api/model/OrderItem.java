@@ -10,7 +10,9 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "order_item")
+@Table(name = "order_item", indexes = {
+        @Index(name = "idx_order_item_payment", columnList = "payment_id")
+})
 @Schema(name = "OrderItem", description = "The order item DB-entity")
 public class OrderItem {
     @Id
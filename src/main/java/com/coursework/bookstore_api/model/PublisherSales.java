@@ -0,0 +1,27 @@
+package com.coursework.bookstore_api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "sales_by_publisher", indexes = {
+        @Index(name = "idx_sales_by_publisher_revenue", columnList = "revenue")
+})
+@Schema(name = "PublisherSales", description = "Units sold and revenue per publisher, maintained by the analytics refresh")
+public class PublisherSales {
+    @Id
+    @Column(name = "publisher_id")
+    private int publisherId;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+}
@@ -10,7 +10,9 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "review")
+@Table(name = "review", indexes = {
+        @Index(name = "idx_review_book_id", columnList = "book_id, review_id")
+})
 @Schema(name = "Review", description = "The review DB-entity")
 public class Review {
     @Id
@@ -21,6 +23,10 @@ public class Review {
     @Column(name = "review_text")
     private String text;
 
+    // 1 to 5 stars; null for reviews written before ratings existed
+    @Column(name = "rating")
+    private Integer rating;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer reviewer;
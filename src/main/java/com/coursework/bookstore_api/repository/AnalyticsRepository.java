@@ -0,0 +1,138 @@
+package com.coursework.bookstore_api.repository;
+
+import com.coursework.bookstore_api.dto.DailySalesDto;
+import com.coursework.bookstore_api.dto.SalesDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain SQL over the sales rollup tables. Each refresh step folds a range of order ids into the rollups with
+ * one aggregating upsert per table; the reads only touch the small rollup tables.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AnalyticsRepository {
+    public static final String SALES_WATERMARK = "sales";
+
+    private static final String UPSERT_DAILY = """
+            INSERT INTO sales_daily (sales_date, order_count, revenue)
+            SELECT CAST(p.payment_date AS date), COUNT(*), SUM(p.amount)
+            FROM payment p
+            WHERE p.payment_id > ? AND p.payment_id <= ? AND p.payment_date IS NOT NULL
+            GROUP BY CAST(p.payment_date AS date)
+            ON CONFLICT (sales_date) DO UPDATE SET
+                order_count = sales_daily.order_count + EXCLUDED.order_count,
+                revenue = sales_daily.revenue + EXCLUDED.revenue
+            """;
+    private static final String UPSERT_BOOKS = """
+            INSERT INTO sales_by_book (book_id, quantity, revenue)
+            SELECT oi.book_id, SUM(oi.quantity), SUM(oi.quantity * oi.price)
+            FROM order_item oi
+            WHERE oi.payment_id > ? AND oi.payment_id <= ?
+            GROUP BY oi.book_id
+            ON CONFLICT (book_id) DO UPDATE SET
+                quantity = sales_by_book.quantity + EXCLUDED.quantity,
+                revenue = sales_by_book.revenue + EXCLUDED.revenue
+            """;
+    private static final String UPSERT_PUBLISHERS = """
+            INSERT INTO sales_by_publisher (publisher_id, quantity, revenue)
+            SELECT b.publisher_id, SUM(oi.quantity), SUM(oi.quantity * oi.price)
+            FROM order_item oi JOIN book b ON b.book_id = oi.book_id
+            WHERE oi.payment_id > ? AND oi.payment_id <= ? AND b.publisher_id IS NOT NULL
+            GROUP BY b.publisher_id
+            ON CONFLICT (publisher_id) DO UPDATE SET
+                quantity = sales_by_publisher.quantity + EXCLUDED.quantity,
+                revenue = sales_by_publisher.revenue + EXCLUDED.revenue
+            """;
+    // A book in several genres counts fully towards each of them
+    private static final String UPSERT_GENRES = """
+            INSERT INTO sales_by_genre (genre_id, quantity, revenue)
+            SELECT bg.genre_id, SUM(oi.quantity), SUM(oi.quantity * oi.price)
+            FROM order_item oi JOIN book_genre bg ON bg.book_id = oi.book_id
+            WHERE oi.payment_id > ? AND oi.payment_id <= ?
+            GROUP BY bg.genre_id
+            ON CONFLICT (genre_id) DO UPDATE SET
+                quantity = sales_by_genre.quantity + EXCLUDED.quantity,
+                revenue = sales_by_genre.revenue + EXCLUDED.revenue
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Watermark(int lastPaymentId, int settlingPaymentId) {
+    }
+
+    /**
+     * Reads the watermark and locks it until the end of the transaction, so that concurrent refreshes
+     * (e.g. from several instances) run one after the other.
+     */
+    public Watermark lockWatermark(String name) {
+        jdbcTemplate.update("INSERT INTO analytics_watermark (name, last_payment_id, settling_payment_id) " +
+                "VALUES (?, 0, 0) ON CONFLICT (name) DO NOTHING", name);
+        return jdbcTemplate.queryForObject(
+                "SELECT last_payment_id, settling_payment_id FROM analytics_watermark WHERE name = ? FOR UPDATE",
+                (rs, rowNum) -> new Watermark(rs.getInt("last_payment_id"), rs.getInt("settling_payment_id")),
+                name);
+    }
+
+    public void saveWatermark(String name, Watermark watermark) {
+        jdbcTemplate.update("UPDATE analytics_watermark SET last_payment_id = ?, settling_payment_id = ?, " +
+                        "updated_at = ? WHERE name = ?",
+                watermark.lastPaymentId(), watermark.settlingPaymentId(), Timestamp.valueOf(LocalDateTime.now()),
+                name);
+    }
+
+    public int findMaxPaymentId() {
+        Integer max = jdbcTemplate.queryForObject("SELECT MAX(payment_id) FROM payment", Integer.class);
+        return max == null ? 0 : max;
+    }
+
+    /**
+     * Adds the orders with ids in (afterId, upToId] to every rollup.
+     */
+    public void addOrders(int afterId, int upToId) {
+        for (String upsert : List.of(UPSERT_DAILY, UPSERT_BOOKS, UPSERT_PUBLISHERS, UPSERT_GENRES)) {
+            jdbcTemplate.update(upsert, afterId, upToId);
+        }
+    }
+
+    public void clear(String name) {
+        jdbcTemplate.execute("TRUNCATE sales_daily, sales_by_book, sales_by_publisher, sales_by_genre");
+        saveWatermark(name, new Watermark(0, 0));
+    }
+
+    public List<DailySalesDto> findDailySales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT sales_date, order_count, revenue FROM sales_daily " +
+                        "WHERE sales_date >= ? AND sales_date < ? ORDER BY sales_date",
+                (rs, rowNum) -> DailySalesDto.of(rs.getDate("sales_date").toLocalDate(),
+                        rs.getLong("order_count"), rs.getDouble("revenue")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<SalesDto> findTopBooks(int limit) {
+        return findTop("SELECT s.book_id AS id, b.title AS name, s.quantity, s.revenue " +
+                "FROM sales_by_book s JOIN book b ON b.book_id = s.book_id ORDER BY s.revenue DESC LIMIT ?", limit);
+    }
+
+    public List<SalesDto> findTopPublishers(int limit) {
+        return findTop("SELECT s.publisher_id AS id, p.publisher AS name, s.quantity, s.revenue " +
+                "FROM sales_by_publisher s JOIN publisher p ON p.publisher_id = s.publisher_id " +
+                "ORDER BY s.revenue DESC LIMIT ?", limit);
+    }
+
+    public List<SalesDto> findTopGenres(int limit) {
+        return findTop("SELECT s.genre_id AS id, g.genre_name AS name, s.quantity, s.revenue " +
+                "FROM sales_by_genre s JOIN genre g ON g.genre_id = s.genre_id ORDER BY s.revenue DESC LIMIT ?", limit);
+    }
+
+    private List<SalesDto> findTop(String sql, int limit) {
+        return jdbcTemplate.query(sql, (rs, rowNum) -> SalesDto.of(rs.getInt("id"), rs.getString("name"),
+                rs.getLong("quantity"), rs.getDouble("revenue")), limit);
+    }
+}
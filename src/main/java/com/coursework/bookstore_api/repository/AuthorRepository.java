@@ -1,9 +1,13 @@
 package com.coursework.bookstore_api.repository;
 
 import com.coursework.bookstore_api.model.Author;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Integer> {
-}
\ No newline at end of file
+    List<Author> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+}
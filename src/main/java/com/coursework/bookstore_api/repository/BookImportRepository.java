@@ -0,0 +1,143 @@
+package com.coursework.bookstore_api.repository;
+
+import com.coursework.bookstore_api.event.ReferenceType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Plain JDBC access for bulk book imports. Ids are allocated up front from the identity sequences, so books,
+ * references and the link rows can all be sent as JDBC batches (Hibernate cannot batch IDENTITY inserts).
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookImportRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewBook(int id, String isbn, String title, double price, int numberInStock, String imageUrl,
+                          int publisherId, int languageId) {
+    }
+
+    public record BookLink(int bookId, int referenceId) {
+    }
+
+    private record ReferenceTable(String table, String idColumn, String nameColumn) {
+    }
+
+    private static ReferenceTable tableOf(ReferenceType type) {
+        return switch (type) {
+            case AUTHOR -> new ReferenceTable("author", "author_id", "name");
+            case GENRE -> new ReferenceTable("genre", "genre_id", "genre_name");
+            case LANGUAGE -> new ReferenceTable("language", "language_id", "language");
+            case PUBLISHER -> new ReferenceTable("publisher", "publisher_id", "publisher");
+        };
+    }
+
+    /**
+     * Visits every reference of the type as (name, id), in id order.
+     */
+    public void forEachReference(ReferenceType type, ObjIntConsumer<String> consumer) {
+        ReferenceTable table = tableOf(type);
+        jdbcTemplate.query("SELECT " + table.idColumn() + ", " + table.nameColumn() + " FROM " + table.table() +
+                        " WHERE " + table.nameColumn() + " IS NOT NULL ORDER BY " + table.idColumn(),
+                (RowCallbackHandler) rs -> consumer.accept(rs.getString(2), rs.getInt(1)));
+    }
+
+    /**
+     * @return the ids of the new references, in the order of the names
+     */
+    public int[] insertReferences(ReferenceType type, List<String> names) {
+        ReferenceTable table = tableOf(type);
+        int[] ids = nextIds(table.table(), table.idColumn(), names.size());
+        List<Object[]> rows = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            rows.add(new Object[]{ids[i], names.get(i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table.table() + " (" + table.idColumn() + ", " +
+                table.nameColumn() + ") VALUES (?, ?)", rows);
+        return ids;
+    }
+
+    public Map<String, Integer> findBookIdsByIsbn(Collection<String> isbns) {
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT isbn, book_id FROM book WHERE isbn = ANY (?)",
+                (RowCallbackHandler) rs -> ids.put(rs.getString("isbn"), rs.getInt("book_id")),
+                (Object) isbns.toArray(new String[0]));
+        return ids;
+    }
+
+    public int[] nextBookIds(int count) {
+        return nextIds("book", "book_id", count);
+    }
+
+    public void insertBooks(List<NewBook> books) {
+        jdbcTemplate.batchUpdate("INSERT INTO book (book_id, isbn, title, price, number_in_stock, image_url, " +
+                        "publisher_id, language_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                books, books.size(), (ps, book) -> {
+                    ps.setInt(1, book.id());
+                    ps.setString(2, book.isbn());
+                    ps.setString(3, book.title());
+                    ps.setDouble(4, book.price());
+                    ps.setInt(5, book.numberInStock());
+                    ps.setString(6, book.imageUrl());
+                    ps.setInt(7, book.publisherId());
+                    ps.setInt(8, book.languageId());
+                });
+    }
+
+    /**
+     * Overwrites the books' fields. Pass them ordered by id, so that concurrent batches lock the same rows in
+     * the same order and cannot deadlock.
+     */
+    public void updateBooks(List<NewBook> books) {
+        jdbcTemplate.batchUpdate("UPDATE book SET title = ?, price = ?, number_in_stock = ?, image_url = ?, " +
+                        "publisher_id = ?, language_id = ? WHERE book_id = ?",
+                books, books.size(), (ps, book) -> {
+                    ps.setString(1, book.title());
+                    ps.setDouble(2, book.price());
+                    ps.setInt(3, book.numberInStock());
+                    ps.setString(4, book.imageUrl());
+                    ps.setInt(5, book.publisherId());
+                    ps.setInt(6, book.languageId());
+                    ps.setInt(7, book.id());
+                });
+    }
+
+    public void deleteLinks(Collection<Integer> bookIds) {
+        Object ids = bookIds.toArray(new Integer[0]);
+        jdbcTemplate.update("DELETE FROM book_author WHERE book_id = ANY (?)", ids);
+        jdbcTemplate.update("DELETE FROM book_genre WHERE book_id = ANY (?)", ids);
+    }
+
+    public void insertAuthorLinks(List<BookLink> links) {
+        insertLinks("INSERT INTO book_author (book_id, author_id) VALUES (?, ?)", links);
+    }
+
+    public void insertGenreLinks(List<BookLink> links) {
+        insertLinks("INSERT INTO book_genre (book_id, genre_id) VALUES (?, ?)", links);
+    }
+
+    private void insertLinks(String sql, List<BookLink> links) {
+        jdbcTemplate.batchUpdate(sql, links, links.size(), (ps, link) -> {
+            ps.setInt(1, link.bookId());
+            ps.setInt(2, link.referenceId());
+        });
+    }
+
+    private int[] nextIds(String table, String idColumn, int count) {
+        return jdbcTemplate.queryForList(
+                        "SELECT nextval(pg_get_serial_sequence(?, ?)) FROM generate_series(1, ?)",
+                        Integer.class, table, idColumn, count)
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
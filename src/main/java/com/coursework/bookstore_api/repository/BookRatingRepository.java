@@ -0,0 +1,161 @@
+package com.coursework.bookstore_api.repository;
+
+import com.coursework.bookstore_api.model.BookRating;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain SQL over book_rating. Review writes apply their change as a delta with one upsert, which locks only the
+ * book's row, so concurrent reviews of a book are added up instead of overwriting each other.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookRatingRepository {
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    private static final String BACKFILL_MIGRATION = "book_rating_backfill";
+
+    private static final String UPSERT_DELTA = """
+            INSERT INTO book_rating (book_id, review_count, rating_count, rating_sum,
+                                     rating_1, rating_2, rating_3, rating_4, rating_5)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (book_id) DO UPDATE SET
+                review_count = book_rating.review_count + EXCLUDED.review_count,
+                rating_count = book_rating.rating_count + EXCLUDED.rating_count,
+                rating_sum = book_rating.rating_sum + EXCLUDED.rating_sum,
+                rating_1 = book_rating.rating_1 + EXCLUDED.rating_1,
+                rating_2 = book_rating.rating_2 + EXCLUDED.rating_2,
+                rating_3 = book_rating.rating_3 + EXCLUDED.rating_3,
+                rating_4 = book_rating.rating_4 + EXCLUDED.rating_4,
+                rating_5 = book_rating.rating_5 + EXCLUDED.rating_5
+            """;
+    private static final String RECOUNT = """
+            INSERT INTO book_rating (book_id, review_count, rating_count, rating_sum,
+                                     rating_1, rating_2, rating_3, rating_4, rating_5)
+            SELECT book_id, COUNT(*), COUNT(rating), COALESCE(SUM(rating), 0),
+                   COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2),
+                   COUNT(*) FILTER (WHERE rating = 3), COUNT(*) FILTER (WHERE rating = 4),
+                   COUNT(*) FILTER (WHERE rating = 5)
+            FROM review
+            WHERE book_id IS NOT NULL
+            GROUP BY book_id
+            """;
+    private static final String SELECT = "SELECT book_id, review_count, rating_count, rating_sum, " +
+            "rating_1, rating_2, rating_3, rating_4, rating_5 FROM book_rating ";
+    private static final RowMapper<BookRating> ROW_MAPPER = (rs, rowNum) -> new BookRating(
+            rs.getInt("book_id"), rs.getLong("review_count"), rs.getLong("rating_count"), rs.getLong("rating_sum"),
+            rs.getLong("rating_1"), rs.getLong("rating_2"), rs.getLong("rating_3"), rs.getLong("rating_4"),
+            rs.getLong("rating_5"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Change of one book's totals: reviews added (negative when removed) and ratings added or removed per star.
+     */
+    public static final class Delta {
+        private final int bookId;
+        private long reviews;
+        private final long[] ratings = new long[MAX_RATING];
+
+        public Delta(int bookId) {
+            this.bookId = bookId;
+        }
+
+        public int getBookId() {
+            return bookId;
+        }
+
+        public Delta addReview(Integer rating) {
+            reviews++;
+            return addRating(rating);
+        }
+
+        public Delta removeReview(Integer rating) {
+            reviews--;
+            return removeRating(rating);
+        }
+
+        public Delta addRating(Integer rating) {
+            if (rating != null) {
+                ratings[rating - MIN_RATING]++;
+            }
+            return this;
+        }
+
+        public Delta removeRating(Integer rating) {
+            if (rating != null) {
+                ratings[rating - MIN_RATING]--;
+            }
+            return this;
+        }
+    }
+
+    public void apply(Delta delta) {
+        applyAll(List.of(delta));
+    }
+
+    /**
+     * Applies the deltas as one JDBC batch. Pass them ordered by book id, so that concurrent batches lock the
+     * same rows in the same order and cannot deadlock.
+     */
+    public void applyAll(List<Delta> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT_DELTA, deltas, deltas.size(), (ps, delta) -> {
+            long count = 0;
+            long sum = 0;
+            for (int i = 0; i < delta.ratings.length; i++) {
+                count += delta.ratings[i];
+                sum += (i + MIN_RATING) * delta.ratings[i];
+            }
+            ps.setInt(1, delta.bookId);
+            ps.setLong(2, delta.reviews);
+            ps.setLong(3, count);
+            ps.setLong(4, sum);
+            for (int i = 0; i < delta.ratings.length; i++) {
+                ps.setLong(5 + i, delta.ratings[i]);
+            }
+        });
+    }
+
+    public Optional<BookRating> findByBookId(int bookId) {
+        return jdbcTemplate.query(SELECT + "WHERE book_id = ?", ROW_MAPPER, bookId).stream().findFirst();
+    }
+
+    public List<BookRating> findByBookIds(Collection<Integer> bookIds) {
+        return jdbcTemplate.query(SELECT + "WHERE book_id = ANY (?)", ROW_MAPPER,
+                (Object) bookIds.toArray(new Integer[0]));
+    }
+
+    public void deleteByBookId(int bookId) {
+        jdbcTemplate.update("DELETE FROM book_rating WHERE book_id = ?", bookId);
+    }
+
+    /**
+     * Records the backfill of the totals as done, in the caller's transaction. A concurrent claim (e.g. from
+     * another instance) waits for that transaction and then gets false if it committed.
+     *
+     * @return true if the backfill still has to run
+     */
+    public boolean claimBackfill() {
+        return jdbcTemplate.update("INSERT INTO data_migration (name, completed_at) VALUES (?, ?) " +
+                "ON CONFLICT (name) DO NOTHING", BACKFILL_MIGRATION, Timestamp.valueOf(LocalDateTime.now())) == 1;
+    }
+
+    /**
+     * Rebuilds every book's totals from the review table. Call it inside a transaction: review writes are
+     * blocked until it commits, so none of their deltas can be lost or counted twice.
+     */
+    public int recount() {
+        jdbcTemplate.execute("LOCK TABLE review IN SHARE MODE");
+        jdbcTemplate.update("DELETE FROM book_rating");
+        return jdbcTemplate.update(RECOUNT);
+    }
+}
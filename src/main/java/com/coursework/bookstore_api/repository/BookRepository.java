@@ -1,24 +1,47 @@
 package com.coursework.bookstore_api.repository;
 
 import com.coursework.bookstore_api.model.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Integer> {
+public interface BookRepository extends JpaRepository<Book, Integer>, JpaSpecificationExecutor<Book> {
+    @Override
+    @EntityGraph(attributePaths = {"publisher", "language"})
+    List<Book> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"publisher", "language"})
+    Page<Book> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"publisher", "language"})
+    Page<Book> findAll(Specification<Book> specification, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"publisher", "language"})
     Page<Book> findAllByPublisherId(int publisherId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"publisher", "language"})
     Page<Book> findByAuthors_Id(int authorId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"publisher", "language"})
     Page<Book> findByGenres_Id(int genresId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"publisher", "language"})
     Page<Book> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
-    List<Book> findByTitleContainingIgnoreCase(String title);
+    @EntityGraph(attributePaths = {"publisher", "language"})
+    List<Book> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
 
-    Page<Book> findAllByIdIn(List<Integer> ids, Pageable pageable);
+    @EntityGraph(attributePaths = {"publisher", "language"})
+    List<Book> findByIdIn(Collection<Integer> ids);
 }
@@ -0,0 +1,127 @@
+package com.coursework.bookstore_api.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the searchable fields of books for the in-memory search index, one row per book with the author and
+ * genre ids and names aggregated into arrays, and the titles and author names for the suggestion index.
+ */
+@Repository
+public class BookSearchRepository {
+    private static final int FETCH_SIZE = 5000;
+    private static final String SELECT_BOOKS = """
+            SELECT b.book_id, b.title, b.publisher_id,
+                   ARRAY(SELECT a.author_id FROM book_author ba JOIN author a ON a.author_id = ba.author_id
+                         WHERE ba.book_id = b.book_id ORDER BY a.author_id) AS author_ids,
+                   ARRAY(SELECT a.name FROM book_author ba JOIN author a ON a.author_id = ba.author_id
+                         WHERE ba.book_id = b.book_id ORDER BY a.author_id) AS author_names,
+                   ARRAY(SELECT g.genre_id FROM book_genre bg JOIN genre g ON g.genre_id = bg.genre_id
+                         WHERE bg.book_id = b.book_id ORDER BY g.genre_id) AS genre_ids,
+                   ARRAY(SELECT g.genre_name FROM book_genre bg JOIN genre g ON g.genre_id = bg.genre_id
+                         WHERE bg.book_id = b.book_id ORDER BY g.genre_id) AS genre_names
+            FROM book b
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BookSearchRepository(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public record NameRow(int id, String name) {
+    }
+
+    public record BookSearchRow(int id, String title, int publisherId,
+                                int[] authorIds, String[] authorNames,
+                                int[] genreIds, String[] genreNames) {
+    }
+
+    /**
+     * Streams every book in id order. The PostgreSQL driver only uses a cursor (instead of loading the
+     * whole result) inside a transaction, hence the read-only transaction around the query.
+     */
+    public void forEachBook(Consumer<BookSearchRow> consumer) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(SELECT_BOOKS + " ORDER BY b.book_id",
+                        (RowCallbackHandler) rs -> consumer.accept(mapRow(rs, rs.getRow()))));
+    }
+
+    public List<BookSearchRow> findByIds(Collection<Integer> bookIds) {
+        return jdbcTemplate.query(SELECT_BOOKS + " WHERE b.book_id = ANY (?)",
+                (RowMapper<BookSearchRow>) BookSearchRepository::mapRow, (Object) bookIds.toArray(new Integer[0]));
+    }
+
+    public void forEachTitle(Consumer<NameRow> consumer) {
+        streamNames("SELECT book_id AS id, title AS name FROM book", consumer);
+    }
+
+    public void forEachAuthorName(Consumer<NameRow> consumer) {
+        streamNames("SELECT author_id AS id, name FROM author", consumer);
+    }
+
+    public List<NameRow> findTitles(Collection<Integer> bookIds) {
+        return jdbcTemplate.query("SELECT book_id AS id, title AS name FROM book WHERE book_id = ANY (?)",
+                (RowMapper<NameRow>) BookSearchRepository::mapNameRow, (Object) bookIds.toArray(new Integer[0]));
+    }
+
+    public List<NameRow> findAuthorNames(Collection<Integer> authorIds) {
+        return jdbcTemplate.query("SELECT author_id AS id, name FROM author WHERE author_id = ANY (?)",
+                (RowMapper<NameRow>) BookSearchRepository::mapNameRow, (Object) authorIds.toArray(new Integer[0]));
+    }
+
+    private void streamNames(String sql, Consumer<NameRow> consumer) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(sql, (RowCallbackHandler) rs -> consumer.accept(mapNameRow(rs, rs.getRow()))));
+    }
+
+    private static NameRow mapNameRow(ResultSet rs, int rowNum) throws SQLException {
+        return new NameRow(rs.getInt("id"), rs.getString("name"));
+    }
+
+    private static BookSearchRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new BookSearchRow(
+                rs.getInt("book_id"),
+                rs.getString("title"),
+                rs.getInt("publisher_id"),
+                toIntArray(rs.getArray("author_ids")),
+                toStringArray(rs.getArray("author_names")),
+                toIntArray(rs.getArray("genre_ids")),
+                toStringArray(rs.getArray("genre_names"))
+        );
+    }
+
+    private static int[] toIntArray(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = ((Number) values[i]).intValue();
+        }
+        return result;
+    }
+
+    private static String[] toStringArray(Array array) throws SQLException {
+        Object[] values = (Object[]) array.getArray();
+        String[] result = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (String) values[i];
+        }
+        return result;
+    }
+}
@@ -1,7 +1,10 @@
 package com.coursework.bookstore_api.repository;
 
 import com.coursework.bookstore_api.model.Customer;
+import com.coursework.bookstore_api.model.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,7 @@ public interface CustomerRepository extends JpaRepository<Customer, Integer> {
     Optional<Customer> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("SELECT c.role FROM Customer c WHERE c.username = :username")
+    Optional<Role> findRoleByUsername(@Param("username") String username);
 }
\ No newline at end of file
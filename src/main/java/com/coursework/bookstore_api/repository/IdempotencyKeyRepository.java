@@ -0,0 +1,34 @@
+package com.coursework.bookstore_api.repository;
+
+import com.coursework.bookstore_api.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    /**
+     * Claims the key for the current transaction. A concurrent claim of the same key waits for this
+     * transaction to finish and then gets 0 if it committed.
+     *
+     * @return 1 if the key was claimed, 0 if it is already taken
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, customer_name, request_hash, created_at) " +
+            "VALUES (:key, :customerName, :requestHash, :createdAt) ON CONFLICT (idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int claim(@Param("key") String key, @Param("customerName") String customerName,
+              @Param("requestHash") String requestHash, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.orderId = :orderId, k.response = :response WHERE k.key = :key")
+    int complete(@Param("key") String key, @Param("orderId") int orderId, @Param("response") String response);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,69 @@
+package com.coursework.bookstore_api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock reservation with conditional UPDATEs: a line only takes stock when enough is left, so concurrent orders
+ * can never oversell or overwrite each other's decrement, and only the touched rows are locked.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StockLine(int bookId, int quantity) {
+    }
+
+    /**
+     * Sends the conditional decrements of all the lines as one JDBC batch. Pass the lines ordered by book id,
+     * so that concurrent orders lock the same rows in the same order and cannot deadlock.
+     *
+     * @return per line, whether its stock was reserved
+     */
+    public boolean[] reserve(List<StockLine> lines) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE book SET number_in_stock = number_in_stock - ? WHERE book_id = ? AND number_in_stock >= ?",
+                lines, lines.size(), (ps, line) -> {
+                    ps.setInt(1, line.quantity());
+                    ps.setInt(2, line.bookId());
+                    ps.setInt(3, line.quantity());
+                });
+        boolean[] reserved = new boolean[lines.size()];
+        for (int i = 0; i < reserved.length; i++) {
+            reserved[i] = counts[0][i] > 0;
+        }
+        return reserved;
+    }
+
+    public Map<Integer, Integer> findStock(Collection<Integer> bookIds) {
+        Map<Integer, Integer> stock = new HashMap<>();
+        jdbcTemplate.query("SELECT book_id, number_in_stock FROM book WHERE book_id = ANY (?)",
+                (RowCallbackHandler) rs -> stock.put(rs.getInt("book_id"), rs.getInt("number_in_stock")),
+                (Object) bookIds.toArray(new Integer[0]));
+        return stock;
+    }
+
+    /**
+     * Names of the triggers on order_item that still take the stock themselves, the legacy way of reserving it.
+     * Empty when there are none or the table does not exist yet.
+     */
+    public List<String> findLegacyStockTriggers() {
+        return jdbcTemplate.queryForList("""
+                SELECT t.tgname FROM pg_trigger t JOIN pg_proc p ON p.oid = t.tgfoid
+                WHERE t.tgrelid = to_regclass('order_item') AND NOT t.tgisinternal
+                  AND p.prosrc ILIKE '%number_in_stock%'
+                """, String.class);
+    }
+
+    public void dropOrderItemTrigger(String name) {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS \"" + name.replace("\"", "\"\"") + "\" ON order_item");
+    }
+}
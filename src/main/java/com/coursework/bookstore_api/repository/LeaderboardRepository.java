@@ -0,0 +1,38 @@
+package com.coursework.bookstore_api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class LeaderboardRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public Map<Integer, Long> countUnitsSold() {
+        return countPerBook("SELECT book_id, SUM(quantity) AS total FROM order_item GROUP BY book_id");
+    }
+
+    public Map<Integer, Long> countReviews() {
+        return countPerBook("SELECT book_id, COUNT(*) AS total FROM review GROUP BY book_id");
+    }
+
+    public Map<Integer, String> findTitles(Collection<Integer> bookIds) {
+        Map<Integer, String> titles = new HashMap<>();
+        jdbcTemplate.query("SELECT book_id, title FROM book WHERE book_id = ANY (?)",
+                (RowCallbackHandler) rs -> titles.put(rs.getInt("book_id"), rs.getString("title")),
+                (Object) bookIds.toArray(new Integer[0]));
+        return titles;
+    }
+
+    private Map<Integer, Long> countPerBook(String sql) {
+        Map<Integer, Long> totals = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> totals.put(rs.getInt("book_id"), rs.getLong("total")));
+        return totals;
+    }
+}
@@ -0,0 +1,65 @@
+package com.coursework.bookstore_api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC access for writing many orders at once. Ids are allocated up front from the identity sequences,
+ * so orders and their items can be sent as JDBC batches (Hibernate cannot batch IDENTITY inserts).
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderBatchRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewOrder(int id, int customerId, double amount, Timestamp paymentDate, int itemCount) {
+    }
+
+    public record NewOrderItem(int id, int orderId, int bookId, int quantity, double price) {
+    }
+
+    public int[] nextOrderIds(int count) {
+        return nextIds("payment", "payment_id", count);
+    }
+
+    public int[] nextOrderItemIds(int count) {
+        return nextIds("order_item", "order_item_id", count);
+    }
+
+    public void insertOrders(List<NewOrder> orders) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO payment (payment_id, customer_id, amount, payment_date, item_count) VALUES (?, ?, ?, ?, ?)",
+                orders, orders.size(), (ps, order) -> {
+                    ps.setInt(1, order.id());
+                    ps.setInt(2, order.customerId());
+                    ps.setDouble(3, order.amount());
+                    ps.setTimestamp(4, order.paymentDate());
+                    ps.setInt(5, order.itemCount());
+                });
+    }
+
+    public void insertOrderItems(List<NewOrderItem> items) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_item (order_item_id, payment_id, book_id, quantity, price) VALUES (?, ?, ?, ?, ?)",
+                items, items.size(), (ps, item) -> {
+                    ps.setInt(1, item.id());
+                    ps.setInt(2, item.orderId());
+                    ps.setInt(3, item.bookId());
+                    ps.setInt(4, item.quantity());
+                    ps.setDouble(5, item.price());
+                });
+    }
+
+    private int[] nextIds(String table, String idColumn, int count) {
+        return jdbcTemplate.queryForList(
+                        "SELECT nextval(pg_get_serial_sequence(?, ?)) FROM generate_series(1, ?)",
+                        Integer.class, table, idColumn, count)
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
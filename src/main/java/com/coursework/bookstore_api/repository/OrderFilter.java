@@ -0,0 +1,12 @@
+package com.coursework.bookstore_api.repository;
+
+import java.util.Date;
+
+/**
+ * Optional filters of the admin order listing; null fields are not filtered on.
+ *
+ * @param from inclusive lower bound of the payment date
+ * @param to   exclusive upper bound of the payment date
+ */
+public record OrderFilter(Date from, Date to, Integer customerId, Double minAmount, Double maxAmount) {
+}
@@ -0,0 +1,19 @@
+package com.coursework.bookstore_api.repository;
+
+import com.coursework.bookstore_api.model.OrderItem;
+import com.coursework.bookstore_api.repository.projection.OrderItemRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Integer> {
+    @Query("select oi.order.id as orderId, oi.id as id, b.id as bookId, b.title as bookTitle, " +
+            "oi.quantity as quantity, oi.price as price " +
+            "from OrderItem oi join oi.book b where oi.order.id in :orderIds order by oi.id")
+    List<OrderItemRow> findRowsByOrderIds(@Param("orderIds") Collection<Integer> orderIds);
+}
@@ -1,12 +1,38 @@
 package com.coursework.bookstore_api.repository;
 
 import com.coursework.bookstore_api.model.Order;
+import com.coursework.bookstore_api.repository.projection.OrderRow;
+import com.coursework.bookstore_api.repository.projection.OrderSummaryRow;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Integer> {
-    List<Order> findAllByCustomer_Id(int customerId);
-}
\ No newline at end of file
+public interface OrderRepository extends JpaRepository<Order, Integer>, OrderRepositoryCustom {
+    @Query("select o.id as id, o.amount as amount, o.paymentDate as paymentDate, " +
+            "c.id as customerId, c.username as customerName " +
+            "from Order o join o.customer c where o.id > :afterId order by o.id")
+    List<OrderRow> findRowsAfter(@Param("afterId") int afterId, Pageable pageable);
+
+    @Query(value = "select o.id as id, o.amount as amount, o.paymentDate as paymentDate, " +
+            "c.id as customerId, c.username as customerName " +
+            "from Order o join o.customer c where c.id = :customerId order by o.paymentDate desc, o.id desc",
+            countQuery = "select count(o) from Order o where o.customer.id = :customerId")
+    Page<OrderRow> findRowsByCustomerId(@Param("customerId") int customerId, Pageable pageable);
+
+    @Query("select o.id as id, o.amount as amount, o.paymentDate as paymentDate, " +
+            "c.id as customerId, c.username as customerName " +
+            "from Order o join o.customer c where c.id = :customerId order by o.paymentDate desc, o.id desc")
+    List<OrderRow> findAllRowsByCustomerId(@Param("customerId") int customerId, Limit limit);
+
+    @Query(value = "select o.id as id, o.paymentDate as paymentDate, o.amount as amount, o.itemCount as itemCount " +
+            "from Order o where o.customer.id = :customerId order by o.paymentDate desc, o.id desc",
+            countQuery = "select count(o) from Order o where o.customer.id = :customerId")
+    Page<OrderSummaryRow> findSummariesByCustomerId(@Param("customerId") int customerId, Pageable pageable);
+}
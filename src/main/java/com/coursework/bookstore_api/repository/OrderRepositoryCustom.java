@@ -0,0 +1,14 @@
+package com.coursework.bookstore_api.repository;
+
+import com.coursework.bookstore_api.repository.projection.OrderRow;
+import com.coursework.bookstore_api.util.KeysetCursor;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+    /**
+     * Orders matching the filter, newest first (ties broken by descending id), continuing after the given
+     * position (null for the first page).
+     */
+    List<OrderRow> findRows(OrderFilter filter, KeysetCursor.Position after, int limit);
+}
@@ -0,0 +1,111 @@
+package com.coursework.bookstore_api.repository;
+
+import com.coursework.bookstore_api.model.Customer;
+import com.coursework.bookstore_api.model.Order;
+import com.coursework.bookstore_api.repository.projection.OrderRow;
+import com.coursework.bookstore_api.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Builds the admin order listing from only the filters that are set, so that every combination gets a plain
+ * range/equality query the payment indexes can serve, instead of one query full of "param is null or" checks.
+ */
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+    private final EntityManager entityManager;
+
+    private record Row(int id, double amount, Date paymentDate, int customerId, String customerName)
+            implements OrderRow {
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public double getAmount() {
+            return amount;
+        }
+
+        @Override
+        public Date getPaymentDate() {
+            return paymentDate;
+        }
+
+        @Override
+        public int getCustomerId() {
+            return customerId;
+        }
+
+        @Override
+        public String getCustomerName() {
+            return customerName;
+        }
+    }
+
+    @Override
+    public List<OrderRow> findRows(OrderFilter filter, KeysetCursor.Position after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> order = query.from(Order.class);
+        Join<Order, Customer> customer = order.join("customer");
+        Path<Date> paymentDate = order.get("paymentDate");
+        Path<Integer> id = order.get("id");
+        Path<Double> amount = order.get("amount");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(paymentDate, filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThan(paymentDate, filter.to()));
+        }
+        if (filter.customerId() != null) {
+            predicates.add(cb.equal(customer.get("id"), filter.customerId()));
+        }
+        if (filter.minAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(amount, filter.minAmount()));
+        }
+        if (filter.maxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(amount, filter.maxAmount()));
+        }
+        // PostgreSQL sorts orders without a payment date first in descending order, so they come before all others
+        if (after != null && after.time() == null) {
+            predicates.add(cb.or(
+                    cb.isNotNull(paymentDate),
+                    cb.and(cb.isNull(paymentDate), cb.lessThan(id, after.id()))));
+        } else if (after != null) {
+            Date time = Timestamp.from(after.time());
+            predicates.add(cb.or(
+                    cb.lessThan(paymentDate, time),
+                    cb.and(cb.equal(paymentDate, time), cb.lessThan(id, after.id()))));
+        }
+
+        query.multiselect(id, amount, paymentDate, customer.get("id"), customer.get("username"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(paymentDate), cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> (OrderRow) new Row(
+                        tuple.get(0, Integer.class),
+                        tuple.get(1, Double.class),
+                        tuple.get(2, Date.class),
+                        tuple.get(3, Integer.class),
+                        tuple.get(4, String.class)))
+                .toList();
+    }
+}
@@ -1,9 +1,33 @@
 package com.coursework.bookstore_api.repository;
 
 import com.coursework.bookstore_api.model.Review;
+import com.coursework.bookstore_api.repository.projection.ReviewRow;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
-}
\ No newline at end of file
+    /**
+     * A page of a book's reviews, newest first, with the reviewer names joined in.
+     */
+    @Query("select r.id as id, r.text as text, r.rating as rating, c.id as reviewerId, c.username as reviewerName, " +
+            "r.book.id as bookId from Review r left join r.reviewer c " +
+            "where r.book.id = :bookId and r.id < :beforeId order by r.id desc")
+    List<ReviewRow> findPageByBookId(@Param("bookId") int bookId, @Param("beforeId") int beforeId, Limit limit);
+
+    /**
+     * Locks the review until the end of the transaction, so that concurrent edits of its rating apply their
+     * deltas to the book's rating aggregates one after the other, each from the rating the previous one left.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Review r where r.id = :id")
+    Optional<Review> findByIdForUpdate(@Param("id") int id);
+}
@@ -0,0 +1,15 @@
+package com.coursework.bookstore_api.repository.projection;
+
+public interface OrderItemRow {
+    int getOrderId();
+
+    int getId();
+
+    int getBookId();
+
+    String getBookTitle();
+
+    int getQuantity();
+
+    double getPrice();
+}
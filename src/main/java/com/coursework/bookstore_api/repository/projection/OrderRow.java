@@ -0,0 +1,15 @@
+package com.coursework.bookstore_api.repository.projection;
+
+import java.util.Date;
+
+public interface OrderRow {
+    int getId();
+
+    double getAmount();
+
+    Date getPaymentDate();
+
+    int getCustomerId();
+
+    String getCustomerName();
+}
@@ -0,0 +1,13 @@
+package com.coursework.bookstore_api.repository.projection;
+
+import java.util.Date;
+
+public interface OrderSummaryRow {
+    int getId();
+
+    Date getPaymentDate();
+
+    double getAmount();
+
+    Integer getItemCount();
+}
@@ -0,0 +1,15 @@
+package com.coursework.bookstore_api.repository.projection;
+
+public interface ReviewRow {
+    int getId();
+
+    String getText();
+
+    Integer getRating();
+
+    Integer getReviewerId();
+
+    String getReviewerName();
+
+    int getBookId();
+}
@@ -0,0 +1,70 @@
+package com.coursework.bookstore_api.repository.specification;
+
+import com.coursework.bookstore_api.model.Author;
+import com.coursework.bookstore_api.model.Book;
+import com.coursework.bookstore_api.model.Genre;
+import jakarta.persistence.criteria.Join;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Composable predicates for the book catalogue, so that every filter of /books/filter
+ * ends up in the WHERE clause of a single query (and of its COUNT query) instead of being
+ * applied to the whole catalogue in memory.
+ */
+@UtilityClass
+public class BookSpecifications {
+    private static final char LIKE_ESCAPE = '\\';
+
+    public static Specification<Book> filter(String title, Integer publisherId, Integer authorId, Integer genreId) {
+        List<Specification<Book>> specifications = new ArrayList<>();
+        if (title != null && !title.isBlank()) {
+            specifications.add(titleContains(title));
+        }
+        if (publisherId != null) {
+            specifications.add(hasPublisher(publisherId));
+        }
+        if (authorId != null) {
+            specifications.add(hasAuthor(authorId));
+        }
+        if (genreId != null) {
+            specifications.add(hasGenre(genreId));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    public static Specification<Book> titleContains(String title) {
+        String pattern = "%" + escapeLikePattern(title.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<Book> hasPublisher(int publisherId) {
+        return (root, query, cb) -> cb.equal(root.get("publisher").get("id"), publisherId);
+    }
+
+    // A book is linked to a given author (or genre) at most once, so the join below
+    // never multiplies rows and needs no DISTINCT, which keeps paging and counting cheap.
+    public static Specification<Book> hasAuthor(int authorId) {
+        return (root, query, cb) -> {
+            Join<Book, Author> authors = root.join("authors");
+            return cb.equal(authors.get("id"), authorId);
+        };
+    }
+
+    public static Specification<Book> hasGenre(int genreId) {
+        return (root, query, cb) -> {
+            Join<Book, Genre> genres = root.join("genres");
+            return cb.equal(genres.get("id"), genreId);
+        };
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
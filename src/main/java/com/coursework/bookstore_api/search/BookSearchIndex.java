@@ -0,0 +1,362 @@
+package com.coursework.bookstore_api.search;
+
+import com.coursework.bookstore_api.event.BookChangedEvent;
+import com.coursework.bookstore_api.event.CatalogChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceDataChangedEvent;
+import com.coursework.bookstore_api.repository.BookSearchRepository;
+import com.coursework.bookstore_api.repository.BookSearchRepository.BookSearchRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory inverted index over book titles, author names and genre names, with the author, genre and publisher
+ * ids as filters. Results are ranked by a field-weighted idf score: a title match counts more than an author
+ * match, which counts more than a genre match, and rare terms count more than common ones. Every query token
+ * must match; the last one also matches as a prefix, so results follow the search box as the user types.
+ * <p>
+ * The index is loaded in the background at startup; until then {@link #search} returns empty and callers fall
+ * back to the DB. Afterwards it is kept current from the book and reference data change events, and reloaded
+ * after bulk changes while searches keep using the previous index. Changes and reloads are applied by one
+ * {@link IndexUpdater} thread, with one query per batch of changed books.
+ */
+@Component
+public class BookSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    // Terms of a prefix token scored one by one, per field: the most frequent ones. The rest are scored together.
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    // Changed books read from the DB per query
+    private static final int UPDATE_BATCH_SIZE = 500;
+    // Prefix matches score a bit below exact matches of the same term
+    private static final double PREFIX_MATCH_FACTOR = 0.8;
+
+    private enum Field {
+        TITLE("t:", 3.0),
+        AUTHOR("a:", 2.0),
+        GENRE("g:", 1.0);
+
+        private final String keyPrefix;
+        private final double weight;
+
+        Field(String keyPrefix, double weight) {
+            this.keyPrefix = keyPrefix;
+            this.weight = weight;
+        }
+
+        String key(String token) {
+            return keyPrefix + token;
+        }
+    }
+
+    public record SearchResult(List<Integer> bookIds, long totalHits) {
+    }
+
+    private record TokenMatch(List<int[]> postings, List<Double> weights, int[] books) {
+    }
+
+    private final BookSearchRepository bookSearchRepository;
+    private final IndexUpdater<Integer> updater;
+
+    // "t:word", "a:word", "g:word" -> ids of the books containing the word in that field
+    private volatile ConcurrentSkipListMap<String, int[]> terms = new ConcurrentSkipListMap<>();
+    // "author:12", "genre:3", "publisher:7" -> ids of the books with that reference
+    private volatile Map<String, int[]> filters = new ConcurrentHashMap<>();
+    // Keys each book is indexed under, by book id, so that it can be removed again. Only used by the updater.
+    private String[][] documentKeys = new String[0][];
+    private final AtomicInteger documentCount = new AtomicInteger();
+
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookSearchRepository bookSearchRepository) {
+        this.bookSearchRepository = bookSearchRepository;
+        this.updater = new IndexUpdater<>("book-search", this::load, this::reindex, UPDATE_BATCH_SIZE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        updater.requestReload();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documentCount.get();
+    }
+
+    /**
+     * @return the ranked page of book ids, or empty while the index is not loaded yet or when the query
+     * has no searchable tokens
+     */
+    public Optional<SearchResult> search(String query, Integer publisherId, Integer authorId, Integer genreId,
+                                         int offset, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (!ready || tokens.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int documents = Math.max(documentCount.get(), 1);
+        List<TokenMatch> matches = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            TokenMatch match = match(tokens.get(i), i == tokens.size() - 1, documents);
+            if (match.books().length == 0) {
+                return Optional.of(new SearchResult(List.of(), 0));
+            }
+            matches.add(match);
+        }
+
+        // Intersect starting from the rarest token to keep the intermediate lists small
+        matches.sort((a, b) -> Integer.compare(a.books().length, b.books().length));
+        int[] candidates = matches.get(0).books();
+        for (int i = 1; i < matches.size() && candidates.length > 0; i++) {
+            candidates = PostingLists.intersect(candidates, matches.get(i).books());
+        }
+        candidates = applyFilter(candidates, "publisher", publisherId);
+        candidates = applyFilter(candidates, "author", authorId);
+        candidates = applyFilter(candidates, "genre", genreId);
+
+        double[] scores = new double[candidates.length];
+        for (TokenMatch match : matches) {
+            for (int i = 0; i < match.postings().size(); i++) {
+                PostingLists.accumulate(candidates, scores, match.postings().get(i), match.weights().get(i));
+            }
+        }
+        return Optional.of(new SearchResult(topRanked(candidates, scores, offset, limit), candidates.length));
+    }
+
+    // Stock and review changes don't touch anything searchable
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.searchableFieldsChanged()) {
+            updater.markDirty(event.bookId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (!event.affectsBooks()) {
+            return;
+        }
+        String filterKey = switch (event.referenceType()) {
+            case AUTHOR -> "author:" + event.id();
+            case GENRE -> "genre:" + event.id();
+            case PUBLISHER -> "publisher:" + event.id();
+            // the language is neither searched nor filtered on
+            case LANGUAGE -> null;
+        };
+        if (filterKey != null) {
+            int[] bookIds = filters.getOrDefault(filterKey, PostingLists.EMPTY);
+            updater.markDirty(Arrays.stream(bookIds).boxed().toList());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        updater.requestReload();
+    }
+
+    private void reindex(List<Integer> bookIds) {
+        List<BookSearchRow> rows = bookSearchRepository.findByIds(bookIds);
+        for (int bookId : bookIds) {
+            removeDocument(bookId);
+        }
+        rows.forEach(this::addDocument);
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        Map<String, IntArrayBuilder> termBuilders = new HashMap<>();
+        Map<String, IntArrayBuilder> filterBuilders = new HashMap<>();
+        List<String[]> keysById = new ArrayList<>();
+        bookSearchRepository.forEachBook(row -> {
+            String[] keys = keysOf(row);
+            for (String key : keys) {
+                (isFilterKey(key) ? filterBuilders : termBuilders)
+                        .computeIfAbsent(key, k -> new IntArrayBuilder())
+                        .add(row.id());
+            }
+            while (keysById.size() <= row.id()) {
+                keysById.add(null);
+            }
+            keysById.set(row.id(), keys);
+        });
+
+        // rows come in id order, so every posting list is already sorted
+        ConcurrentSkipListMap<String, int[]> loadedTerms = new ConcurrentSkipListMap<>();
+        Map<String, int[]> loadedFilters = new ConcurrentHashMap<>();
+        termBuilders.forEach((key, builder) -> loadedTerms.put(key, builder.toArray()));
+        filterBuilders.forEach((key, builder) -> loadedFilters.put(key, builder.toArray()));
+        terms = loadedTerms;
+        filters = loadedFilters;
+        documentKeys = keysById.toArray(new String[0][]);
+        documentCount.set((int) keysById.stream().filter(Objects::nonNull).count());
+        ready = true;
+        logger.info("Book search index loaded: {} books, {} terms in {} ms",
+                documentCount.get(), terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private TokenMatch match(String token, boolean prefix, int documents) {
+        List<int[]> postings = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (Field field : Field.values()) {
+            String key = field.key(token);
+            int[] exact = terms.get(key);
+            if (exact != null) {
+                postings.add(exact);
+                weights.add(field.weight * idf(exact.length, documents));
+            }
+            if (prefix) {
+                addPrefixExpansions(field, key, documents, postings, weights);
+            }
+        }
+        return new TokenMatch(postings, weights, PostingLists.union(postings));
+    }
+
+    // Scores the most frequent longer terms one by one, and the rarer rest as one merged term, so that no
+    // matching book is dropped however many terms share the prefix
+    private void addPrefixExpansions(Field field, String key, int documents, List<int[]> postings,
+                                     List<Double> weights) {
+        PriorityQueue<int[]> mostFrequent =
+                new PriorityQueue<>(Comparator.comparingInt((int[] posting) -> posting.length));
+        List<int[]> rest = new ArrayList<>();
+        for (int[] posting : terms.subMap(key, false, key + Character.MAX_VALUE, false).values()) {
+            mostFrequent.add(posting);
+            if (mostFrequent.size() > MAX_PREFIX_EXPANSIONS) {
+                rest.add(mostFrequent.poll());
+            }
+        }
+        for (int[] posting : mostFrequent) {
+            postings.add(posting);
+            weights.add(field.weight * PREFIX_MATCH_FACTOR * idf(posting.length, documents));
+        }
+        if (!rest.isEmpty()) {
+            int[] merged = PostingLists.union(rest);
+            postings.add(merged);
+            weights.add(field.weight * PREFIX_MATCH_FACTOR * idf(merged.length, documents));
+        }
+    }
+
+    private int[] applyFilter(int[] candidates, String filter, Integer id) {
+        if (id == null || candidates.length == 0) {
+            return candidates;
+        }
+        return PostingLists.intersect(candidates, filters.getOrDefault(filter + ":" + id, PostingLists.EMPTY));
+    }
+
+    // Keeps the best offset + limit candidates in a min-heap, then returns the requested slice best first
+    private static List<Integer> topRanked(int[] candidates, double[] scores, int offset, int limit) {
+        int wanted = (int) Math.min((long) offset + limit, candidates.length);
+        if (wanted <= offset) {
+            return List.of();
+        }
+        PriorityQueue<Integer> heap = new PriorityQueue<>(wanted, (a, b) -> scores[a] != scores[b]
+                ? Double.compare(scores[a], scores[b])
+                : Integer.compare(candidates[b], candidates[a]));
+        for (int i = 0; i < candidates.length; i++) {
+            heap.add(i);
+            if (heap.size() > wanted) {
+                heap.poll();
+            }
+        }
+        Integer[] best = new Integer[heap.size()];
+        for (int i = best.length - 1; i >= 0; i--) {
+            best[i] = heap.poll();
+        }
+        return Arrays.stream(best, offset, best.length).map(index -> candidates[index]).toList();
+    }
+
+    private static double idf(int documentFrequency, int documents) {
+        return Math.log(1.0 + (double) documents / documentFrequency);
+    }
+
+    private static String[] keysOf(BookSearchRow row) {
+        Set<String> keys = new LinkedHashSet<>();
+        SearchTokenizer.tokenize(row.title()).forEach(token -> keys.add(Field.TITLE.key(token)));
+        for (String name : row.authorNames()) {
+            SearchTokenizer.tokenize(name).forEach(token -> keys.add(Field.AUTHOR.key(token)));
+        }
+        for (String name : row.genreNames()) {
+            SearchTokenizer.tokenize(name).forEach(token -> keys.add(Field.GENRE.key(token)));
+        }
+        for (int authorId : row.authorIds()) {
+            keys.add("author:" + authorId);
+        }
+        for (int genreId : row.genreIds()) {
+            keys.add("genre:" + genreId);
+        }
+        if (row.publisherId() != 0) {
+            keys.add("publisher:" + row.publisherId());
+        }
+        return keys.stream().map(String::intern).toArray(String[]::new);
+    }
+
+    private static boolean isFilterKey(String key) {
+        return key.startsWith("author:") || key.startsWith("genre:") || key.startsWith("publisher:");
+    }
+
+    private Map<String, int[]> postingsOf(String key) {
+        return isFilterKey(key) ? filters : terms;
+    }
+
+    private void addDocument(BookSearchRow row) {
+        String[] keys = keysOf(row);
+        for (String key : keys) {
+            postingsOf(key).merge(key, new int[]{row.id()}, (existing, added) -> PostingLists.insert(existing, row.id()));
+        }
+        if (documentKeys.length <= row.id()) {
+            documentKeys = Arrays.copyOf(documentKeys, Math.max(row.id() + 1, documentKeys.length * 3 / 2));
+        }
+        documentKeys[row.id()] = keys;
+        documentCount.incrementAndGet();
+    }
+
+    private void removeDocument(int bookId) {
+        if (bookId >= documentKeys.length || documentKeys[bookId] == null) {
+            return;
+        }
+        for (String key : documentKeys[bookId]) {
+            postingsOf(key).computeIfPresent(key, (k, posting) -> {
+                int[] remaining = PostingLists.remove(posting, bookId);
+                return remaining.length == 0 ? null : remaining;
+            });
+        }
+        documentKeys[bookId] = null;
+        documentCount.decrementAndGet();
+    }
+
+    private static final class IntArrayBuilder {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
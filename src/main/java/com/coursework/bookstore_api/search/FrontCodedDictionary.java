@@ -0,0 +1,134 @@
+package com.coursework.bookstore_api.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable sorted dictionary of UTF-8 keys (at most {@link #MAX_KEY_BYTES} long) mapped to int values.
+ * Keys are front coded in blocks of {@link #BLOCK_SIZE}: every entry stores only the length of the prefix it
+ * shares with the previous key and the bytes after it, and each block starts with a whole key so that a lookup
+ * can binary search the blocks and then decode at most one block before reaching its first candidate. Sorted
+ * titles and names share long prefixes, so this takes a fraction of the memory of one String per key.
+ */
+final class FrontCodedDictionary {
+    static final int BLOCK_SIZE = 16;
+    static final int MAX_KEY_BYTES = 255;
+
+    static final FrontCodedDictionary EMPTY = build(List.of());
+
+    record Entry(byte[] key, int value) {
+        static final Comparator<Entry> ORDER = (a, b) -> Arrays.compareUnsigned(a.key, b.key);
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        /**
+         * @return false to stop the scan
+         */
+        boolean visit(byte[] key, int length, int value);
+    }
+
+    // Per entry: shared prefix length (1 byte), suffix length (1 byte), suffix bytes
+    private final byte[] data;
+    private final int[] blockOffsets;
+    private final int[] values;
+
+    private FrontCodedDictionary(byte[] data, int[] blockOffsets, int[] values) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.values = values;
+    }
+
+    /**
+     * @param entries entries sorted by {@link Entry#ORDER}, with keys of at most {@link #MAX_KEY_BYTES} bytes
+     */
+    static FrontCodedDictionary build(List<Entry> entries) {
+        int[] blockOffsets = new int[(entries.size() + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        int[] values = new int[entries.size()];
+        byte[] data = new byte[Math.max(16, entries.size() * 8)];
+        int position = 0;
+        byte[] previous = new byte[0];
+        for (int i = 0; i < entries.size(); i++) {
+            byte[] key = entries.get(i).key();
+            int shared = 0;
+            if (i % BLOCK_SIZE == 0) {
+                blockOffsets[i / BLOCK_SIZE] = position;
+            } else {
+                int max = Math.min(previous.length, key.length);
+                while (shared < max && previous[shared] == key[shared]) {
+                    shared++;
+                }
+            }
+            int suffix = key.length - shared;
+            if (position + 2 + suffix > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, position + 2 + suffix));
+            }
+            data[position++] = (byte) shared;
+            data[position++] = (byte) suffix;
+            System.arraycopy(key, shared, data, position, suffix);
+            position += suffix;
+            values[i] = entries.get(i).value();
+            previous = key;
+        }
+        return new FrontCodedDictionary(Arrays.copyOf(data, position), blockOffsets, values);
+    }
+
+    int size() {
+        return values.length;
+    }
+
+    long sizeInBytes() {
+        // array headers plus contents
+        return 3 * 16L + data.length + 4L * blockOffsets.length + 4L * values.length;
+    }
+
+    /**
+     * Visits the entries whose key starts with the prefix, in key order. An empty prefix visits every entry.
+     */
+    void scanPrefix(byte[] prefix, Visitor visitor) {
+        if (values.length == 0) {
+            return;
+        }
+        byte[] key = new byte[MAX_KEY_BYTES];
+        int index = firstCandidateBlock(prefix, key) * BLOCK_SIZE;
+        int position = blockOffsets[index / BLOCK_SIZE];
+        for (; index < values.length; index++) {
+            int shared = data[position++] & 0xFF;
+            int suffix = data[position++] & 0xFF;
+            System.arraycopy(data, position, key, shared, suffix);
+            position += suffix;
+            int length = shared + suffix;
+
+            if (startsWith(key, length, prefix)) {
+                if (!visitor.visit(key, length, values[index])) {
+                    return;
+                }
+            } else if (Arrays.compareUnsigned(key, 0, length, prefix, 0, prefix.length) > 0) {
+                return;
+            }
+        }
+    }
+
+    // The last block whose first key sorts before the prefix: every match sorts after that key
+    private int firstCandidateBlock(byte[] prefix, byte[] scratch) {
+        int low = 0;
+        int high = blockOffsets.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            int position = blockOffsets[middle] + 1;
+            int length = data[position++] & 0xFF;
+            System.arraycopy(data, position, scratch, 0, length);
+            if (Arrays.compareUnsigned(scratch, 0, length, prefix, 0, prefix.length) < 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static boolean startsWith(byte[] key, int length, byte[] prefix) {
+        return length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
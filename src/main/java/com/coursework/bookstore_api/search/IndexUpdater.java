@@ -0,0 +1,99 @@
+package com.coursework.bookstore_api.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Applies the changes to an in-memory index on one background thread, so that the threads publishing the change
+ * events never query the DB or wait for the index, and reloads never overlap. Requests are coalesced: any number of
+ * reload requests made while one is pending result in one reload, and items marked dirty are applied in batches.
+ * Items marked dirty while a reload runs are applied right after it, so the reloaded index misses no change.
+ *
+ * @param <K> key of an indexed item
+ */
+final class IndexUpdater<K> {
+    private static final Logger logger = LoggerFactory.getLogger(IndexUpdater.class);
+
+    private final String name;
+    private final Runnable reload;
+    private final Consumer<List<K>> apply;
+    private final int batchSize;
+    private final ExecutorService executor;
+
+    private final Set<K> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    IndexUpdater(String name, Runnable reload, Consumer<List<K>> apply, int batchSize) {
+        this.name = name;
+        this.reload = reload;
+        this.apply = apply;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name + "-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void requestReload() {
+        reloadRequested.set(true);
+        schedule();
+    }
+
+    void markDirty(K key) {
+        dirty.add(key);
+        schedule();
+    }
+
+    void markDirty(Collection<K> keys) {
+        if (!keys.isEmpty()) {
+            dirty.addAll(keys);
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    private void run() {
+        // Cleared first, so that a request made from now on schedules another run
+        scheduled.set(false);
+        if (reloadRequested.getAndSet(false)) {
+            try {
+                reload.run();
+            } catch (RuntimeException e) {
+                logger.error("Failed to reload the {} index: {}", name, e.getMessage(), e);
+            }
+        }
+        // A reload requested meanwhile goes first; it was scheduled as the next run
+        while (!dirty.isEmpty() && !reloadRequested.get()) {
+            List<K> batch = new ArrayList<>(batchSize);
+            Iterator<K> iterator = dirty.iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            try {
+                apply.accept(batch);
+            } catch (RuntimeException e) {
+                // the items stay as they were until their next change or the next reload
+                logger.error("Failed to update {} items of the {} index: {}", batch.size(), name, e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.coursework.bookstore_api.search;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Operations on posting lists: ascending arrays of distinct book ids.
+ */
+@UtilityClass
+public class PostingLists {
+    public static final int[] EMPTY = new int[0];
+
+    // Below this size ratio the smaller list is looked up in the larger one instead of merging both
+    private static final int BINARY_SEARCH_RATIO = 32;
+    // Above this many lists a union sorts all the ids at once instead of merging the lists pairwise
+    private static final int PAIRWISE_UNION_LIMIT = 8;
+
+    public static int[] union(List<int[]> lists) {
+        if (lists.isEmpty()) {
+            return EMPTY;
+        }
+        if (lists.size() > PAIRWISE_UNION_LIMIT) {
+            return sortedUnion(lists);
+        }
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size(); i++) {
+            result = union(result, lists.get(i));
+        }
+        return result;
+    }
+
+    // Merging many lists pairwise copies the growing result once per list; sorting all ids once doesn't
+    private static int[] sortedUnion(List<int[]> lists) {
+        int total = 0;
+        for (int[] list : lists) {
+            total += list.length;
+        }
+        int[] all = new int[total];
+        int offset = 0;
+        for (int[] list : lists) {
+            System.arraycopy(list, 0, all, offset, list.length);
+            offset += list.length;
+        }
+        Arrays.sort(all);
+        int size = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (size == 0 || all[i] != all[size - 1]) {
+                all[size++] = all[i];
+            }
+        }
+        return size == all.length ? all : Arrays.copyOf(all, size);
+    }
+
+    public static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[size++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[size++] = b[j++];
+            } else {
+                result[size++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[size++] = a[i++];
+        }
+        while (j < b.length) {
+            result[size++] = b[j++];
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    public static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) {
+            return intersect(b, a);
+        }
+        int[] result = new int[a.length];
+        int size = 0;
+        if ((long) a.length * BINARY_SEARCH_RATIO < b.length) {
+            int from = 0;
+            for (int value : a) {
+                int index = Arrays.binarySearch(b, from, b.length, value);
+                if (index >= 0) {
+                    result[size++] = value;
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+        } else {
+            int i = 0, j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[size++] = a[i++];
+                    j++;
+                }
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Adds {@code weight} to {@code scores[i]} for every {@code candidates[i]} contained in {@code posting}.
+     */
+    public static void accumulate(int[] candidates, double[] scores, int[] posting, double weight) {
+        if ((long) candidates.length * BINARY_SEARCH_RATIO < posting.length) {
+            int from = 0;
+            for (int i = 0; i < candidates.length && from < posting.length; i++) {
+                int index = Arrays.binarySearch(posting, from, posting.length, candidates[i]);
+                if (index >= 0) {
+                    scores[i] += weight;
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+        } else {
+            int i = 0, j = 0;
+            while (i < candidates.length && j < posting.length) {
+                if (candidates[i] < posting[j]) {
+                    i++;
+                } else if (candidates[i] > posting[j]) {
+                    j++;
+                } else {
+                    scores[i++] += weight;
+                    j++;
+                }
+            }
+        }
+    }
+
+    public static int[] insert(int[] list, int value) {
+        int index = Arrays.binarySearch(list, value);
+        if (index >= 0) {
+            return list;
+        }
+        int position = -index - 1;
+        int[] result = new int[list.length + 1];
+        System.arraycopy(list, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(list, position, result, position + 1, list.length - position);
+        return result;
+    }
+
+    public static int[] remove(int[] list, int value) {
+        int index = Arrays.binarySearch(list, value);
+        if (index < 0) {
+            return list;
+        }
+        int[] result = new int[list.length - 1];
+        System.arraycopy(list, 0, result, 0, index);
+        System.arraycopy(list, index + 1, result, index, list.length - index - 1);
+        return result;
+    }
+}
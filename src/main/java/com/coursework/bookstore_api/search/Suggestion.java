@@ -0,0 +1,7 @@
+package com.coursework.bookstore_api.search;
+
+public record Suggestion(SuggestionType type, int id, String text) {
+    String itemKey() {
+        return type.name() + ":" + id;
+    }
+}
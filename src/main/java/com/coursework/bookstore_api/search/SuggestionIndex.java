@@ -0,0 +1,363 @@
+package com.coursework.bookstore_api.search;
+
+import com.coursework.bookstore_api.event.BookChangedEvent;
+import com.coursework.bookstore_api.event.CatalogChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceDataChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceType;
+import com.coursework.bookstore_api.repository.BookSearchRepository;
+import com.coursework.bookstore_api.repository.BookSearchRepository.NameRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Typeahead over book titles and author names. Titles match from their first word; author names also match
+ * from any later part of the name, so "tolk" finds "J. R. R. Tolkien".
+ * <p>
+ * The bulk of the entries lives in an immutable {@link FrontCodedDictionary} built at startup. Changes go to a
+ * small sorted delta, and the dictionary entries of changed items are masked until the delta grows past
+ * {@code search.suggest.compaction-threshold} entries and is merged into a new dictionary. Changes, reloads and
+ * compactions all run on one {@link IndexUpdater} thread, which swaps in each new state at once, so suggestions
+ * and the threads publishing changes never wait for them. The retained size is published as the
+ * {@code bookstore.suggest.memory} gauge.
+ */
+@Component
+public class SuggestionIndex {
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndex.class);
+
+    // Entries read per requested suggestion, to rank the closest completions among them
+    private static final int CANDIDATES_PER_RESULT = 4;
+    // Rough heap cost of a Suggestion with its String, and of a delta entry, besides the text bytes
+    private static final int SUGGESTION_OVERHEAD_BYTES = 80;
+    private static final int DELTA_ENTRY_OVERHEAD_BYTES = 160;
+
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparing((Candidate candidate) -> !candidate.fromStart())
+            .thenComparingInt(candidate -> candidate.suggestion().text().length())
+            .thenComparing(candidate -> candidate.suggestion().text(), String.CASE_INSENSITIVE_ORDER);
+
+    // Changed items read from the DB per query
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    private record Key(String text, boolean fromStart) {
+    }
+
+    private record Item(SuggestionType type, int id) {
+    }
+
+    private record Candidate(Suggestion suggestion, boolean fromStart) {
+        static Candidate closer(Candidate a, Candidate b) {
+            return a.fromStart() ? a : b;
+        }
+    }
+
+    /**
+     * Dictionary values are the item index shifted left by one, with the low bit set for keys that start at the
+     * beginning of the text. Delta keys are the entry key, a NUL and the item key, so items never collide.
+     */
+    private record State(FrontCodedDictionary dictionary, Suggestion[] items, long itemBytes,
+                         ConcurrentSkipListMap<String, Candidate> delta,
+                         Map<String, List<String>> deltaKeysByItem,
+                         Set<String> maskedItems) {
+        static State of(FrontCodedDictionary dictionary, List<Suggestion> items) {
+            long itemBytes = 16L + 4L * items.size();
+            for (Suggestion item : items) {
+                itemBytes += SUGGESTION_OVERHEAD_BYTES + item.text().length();
+            }
+            return new State(dictionary, items.toArray(new Suggestion[0]), itemBytes,
+                    new ConcurrentSkipListMap<>(), new ConcurrentHashMap<>(), ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    private final BookSearchRepository bookSearchRepository;
+    private final int compactionThreshold;
+    private final IndexUpdater<Item> updater;
+
+    private volatile State state = State.of(FrontCodedDictionary.EMPTY, List.of());
+    private volatile boolean ready;
+
+    public SuggestionIndex(BookSearchRepository bookSearchRepository, MeterRegistry meterRegistry,
+                           @Value("${search.suggest.compaction-threshold:10000}") int compactionThreshold) {
+        this.bookSearchRepository = bookSearchRepository;
+        this.compactionThreshold = compactionThreshold;
+        this.updater = new IndexUpdater<>("suggestion", this::load, this::reindex, UPDATE_BATCH_SIZE);
+
+        Gauge.builder("bookstore.suggest.entries", this, SuggestionIndex::entries)
+                .description("Keys in the suggestion index")
+                .register(meterRegistry);
+        Gauge.builder("bookstore.suggest.memory", this, SuggestionIndex::footprintBytes)
+                .description("Estimated heap retained by the suggestion index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        updater.requestReload();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long entries() {
+        State current = state;
+        return current.dictionary().size() + current.delta().size();
+    }
+
+    public long footprintBytes() {
+        State current = state;
+        long deltaBytes = 0;
+        for (String key : current.delta().keySet()) {
+            deltaBytes += DELTA_ENTRY_OVERHEAD_BYTES + key.length();
+        }
+        return current.dictionary().sizeInBytes() + current.itemBytes() + deltaBytes;
+    }
+
+    /**
+     * @return up to limit titles and author names starting with the prefix, completions from the start of the
+     * text first and shorter ones before longer ones; empty while the index is still loading
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (!ready || normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        byte[] prefixBytes = keyBytes(normalized);
+        String deltaPrefix = new String(prefixBytes, StandardCharsets.UTF_8);
+        State current = state;
+        int wanted = limit * CANDIDATES_PER_RESULT;
+
+        Map<String, Candidate> candidates = new HashMap<>();
+        current.dictionary().scanPrefix(prefixBytes, (key, length, value) -> {
+            Suggestion suggestion = current.items()[value >>> 1];
+            String itemKey = suggestion.itemKey();
+            if (!current.maskedItems().contains(itemKey)) {
+                candidates.merge(itemKey, new Candidate(suggestion, (value & 1) == 1), Candidate::closer);
+            }
+            return candidates.size() < wanted;
+        });
+        int fromDelta = 0;
+        for (Map.Entry<String, Candidate> entry : current.delta().tailMap(deltaPrefix).entrySet()) {
+            if (!entry.getKey().startsWith(deltaPrefix) || fromDelta++ == wanted) {
+                break;
+            }
+            Candidate candidate = entry.getValue();
+            candidates.merge(candidate.suggestion().itemKey(), candidate, Candidate::closer);
+        }
+
+        return candidates.values().stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(Candidate::suggestion)
+                .toList();
+    }
+
+    // Stock and review changes leave the title alone
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.searchableFieldsChanged()) {
+            updater.markDirty(new Item(SuggestionType.BOOK, event.bookId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if (event.referenceType() == ReferenceType.AUTHOR) {
+            updater.markDirty(new Item(SuggestionType.AUTHOR, event.id()));
+        }
+    }
+
+    // A bulk change rebuilds the whole dictionary; suggestions keep coming from the previous one meanwhile
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        updater.requestReload();
+    }
+
+    private void reindex(List<Item> items) {
+        Map<SuggestionType, List<Integer>> idsByType = new EnumMap<>(SuggestionType.class);
+        for (Item item : items) {
+            idsByType.computeIfAbsent(item.type(), type -> new ArrayList<>()).add(item.id());
+        }
+        Map<Item, String> names = new HashMap<>();
+        idsByType.forEach((type, ids) -> {
+            List<NameRow> rows = type == SuggestionType.BOOK
+                    ? bookSearchRepository.findTitles(ids)
+                    : bookSearchRepository.findAuthorNames(ids);
+            rows.forEach(row -> names.put(new Item(type, row.id()), row.name()));
+        });
+
+        State current = state;
+        for (Item item : items) {
+            String name = names.get(item);
+            Suggestion suggestion = name == null ? null : new Suggestion(item.type(), item.id(), name);
+            if (suggestion == null || !isIndexed(current, suggestion)) {
+                replace(current, item.type().name() + ":" + item.id(), suggestion);
+            }
+        }
+        if (current.delta().size() > compactionThreshold) {
+            compact();
+        }
+    }
+
+    // Whether the item is already suggested with this exact text, e.g. when only the book's price changed
+    private static boolean isIndexed(State current, Suggestion suggestion) {
+        String itemKey = suggestion.itemKey();
+        List<String> deltaKeys = current.deltaKeysByItem().get(itemKey);
+        if (deltaKeys != null) {
+            Candidate candidate = current.delta().get(deltaKeys.get(0));
+            return candidate != null && candidate.suggestion().text().equals(suggestion.text());
+        }
+        List<Key> keys = keysOf(suggestion);
+        if (current.maskedItems().contains(itemKey) || keys.isEmpty()) {
+            return false;
+        }
+        byte[] key = keyBytes(keys.get(0).text());
+        boolean[] found = new boolean[1];
+        // entries with exactly this key come first, longer ones sort after them
+        current.dictionary().scanPrefix(key, (entryKey, length, value) -> {
+            Suggestion indexed = current.items()[value >>> 1];
+            found[0] = indexed.itemKey().equals(itemKey) && indexed.text().equals(suggestion.text());
+            return !found[0] && length == key.length;
+        });
+        return found[0];
+    }
+
+    private static void replace(State current, String itemKey, Suggestion suggestion) {
+        current.maskedItems().add(itemKey);
+        List<String> previousKeys = current.deltaKeysByItem().remove(itemKey);
+        if (previousKeys != null) {
+            previousKeys.forEach(current.delta()::remove);
+        }
+        if (suggestion == null) {
+            return;
+        }
+        List<String> deltaKeys = new ArrayList<>();
+        for (Key key : keysOf(suggestion)) {
+            String deltaKey = new String(keyBytes(key.text()), StandardCharsets.UTF_8) + '\0' + itemKey;
+            current.delta().put(deltaKey, new Candidate(suggestion, key.fromStart()));
+            deltaKeys.add(deltaKey);
+        }
+        if (!deltaKeys.isEmpty()) {
+            current.deltaKeysByItem().put(itemKey, deltaKeys);
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        List<Suggestion> items = new ArrayList<>();
+        List<FrontCodedDictionary.Entry> entries = new ArrayList<>();
+        bookSearchRepository.forEachTitle(row ->
+                addEntries(new Suggestion(SuggestionType.BOOK, row.id(), row.name()), items, entries));
+        bookSearchRepository.forEachAuthorName(row ->
+                addEntries(new Suggestion(SuggestionType.AUTHOR, row.id(), row.name()), items, entries));
+        entries.sort(FrontCodedDictionary.Entry.ORDER);
+
+        state = State.of(FrontCodedDictionary.build(entries), items);
+        ready = true;
+        logger.info("Suggestion index loaded: {} items, {} keys, ~{} KB in {} ms", items.size(), entries.size(),
+                footprintBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Merges the unmasked dictionary entries and the delta into a new dictionary. Runs on the updater thread, so
+    // nothing changes the current state meanwhile; suggestions keep reading it until the new one is swapped in.
+    private void compact() {
+        long start = System.nanoTime();
+        State current = state;
+        List<Suggestion> items = new ArrayList<>();
+        List<FrontCodedDictionary.Entry> entries = new ArrayList<>();
+
+        int[] newIndexes = new int[current.items().length];
+        for (int i = 0; i < current.items().length; i++) {
+            Suggestion item = current.items()[i];
+            newIndexes[i] = current.maskedItems().contains(item.itemKey()) ? -1 : items.size();
+            if (newIndexes[i] >= 0) {
+                items.add(item);
+            }
+        }
+        current.dictionary().scanPrefix(new byte[0], (key, length, value) -> {
+            int index = newIndexes[value >>> 1];
+            if (index >= 0) {
+                entries.add(new FrontCodedDictionary.Entry(Arrays.copyOf(key, length), index << 1 | (value & 1)));
+            }
+            return true;
+        });
+        Map<String, Integer> deltaIndexes = new HashMap<>();
+        current.delta().forEach((deltaKey, candidate) -> {
+            int index = deltaIndexes.computeIfAbsent(candidate.suggestion().itemKey(), itemKey -> {
+                items.add(candidate.suggestion());
+                return items.size() - 1;
+            });
+            byte[] key = deltaKey.substring(0, deltaKey.indexOf('\0')).getBytes(StandardCharsets.UTF_8);
+            entries.add(new FrontCodedDictionary.Entry(key, index << 1 | (candidate.fromStart() ? 1 : 0)));
+        });
+        entries.sort(FrontCodedDictionary.Entry.ORDER);
+
+        state = State.of(FrontCodedDictionary.build(entries), items);
+        logger.info("Suggestion index compacted: {} items, {} keys in {} ms", items.size(), entries.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void addEntries(Suggestion suggestion, List<Suggestion> items,
+                                   List<FrontCodedDictionary.Entry> entries) {
+        List<Key> keys = keysOf(suggestion);
+        if (keys.isEmpty()) {
+            return;
+        }
+        int index = items.size();
+        items.add(suggestion);
+        for (Key key : keys) {
+            entries.add(new FrontCodedDictionary.Entry(keyBytes(key.text()), index << 1 | (key.fromStart() ? 1 : 0)));
+        }
+    }
+
+    private static List<Key> keysOf(Suggestion suggestion) {
+        List<String> tokens = SearchTokenizer.tokenize(suggestion.text());
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<Key> keys = new ArrayList<>();
+        keys.add(new Key(String.join(" ", tokens), true));
+        if (suggestion.type() == SuggestionType.AUTHOR) {
+            for (int i = 1; i < tokens.size(); i++) {
+                keys.add(new Key(String.join(" ", tokens.subList(i, tokens.size())), false));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", SearchTokenizer.tokenize(text));
+    }
+
+    // UTF-8 bytes of the key, cut on a character boundary to fit the dictionary's key length
+    private static byte[] keyBytes(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= FrontCodedDictionary.MAX_KEY_BYTES) {
+            return bytes;
+        }
+        int end = FrontCodedDictionary.MAX_KEY_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+}
@@ -0,0 +1,6 @@
+package com.coursework.bookstore_api.search;
+
+public enum SuggestionType {
+    BOOK,
+    AUTHOR
+}
@@ -0,0 +1,72 @@
+package com.coursework.bookstore_api.security;
+
+import com.coursework.bookstore_api.model.Customer;
+import com.coursework.bookstore_api.model.Role;
+import com.coursework.bookstore_api.repository.CustomerRepository;
+import com.coursework.bookstore_api.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resolves the principal of a verified token.
+ * <p>
+ * In the default {@code database} mode the customer is loaded by username on every request. In {@code claims}
+ * mode the principal is built from the token's {@code id}, {@code email} and {@code role} claims without a query;
+ * with a positive {@code jwt.auth.revocation-check-ttl} the customer's current role is also looked up and cached
+ * for that long, so deleted customers and changed roles take effect after at most one TTL.
+ */
+@Component
+public class JwtUserDetailsResolver {
+    private final UserService userService;
+    private final CustomerRepository customerRepository;
+    private final boolean claimsMode;
+    private final Cache<String, Optional<Role>> currentRoles;
+
+    public JwtUserDetailsResolver(UserService userService, CustomerRepository customerRepository,
+                                  @Value("${jwt.auth.mode:database}") String mode,
+                                  @Value("${jwt.auth.revocation-check-ttl:0s}") Duration revocationCheckTtl,
+                                  @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.userService = userService;
+        this.customerRepository = customerRepository;
+        this.claimsMode = "claims".equalsIgnoreCase(mode);
+        this.currentRoles = revocationCheckTtl.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(revocationCheckTtl)
+                .build();
+    }
+
+    /**
+     * @return the principal, or null when the token's customer no longer exists or has a different role
+     */
+    public UserDetails resolve(Claims claims) {
+        String username = claims.getSubject();
+        Integer id = claims.get("id", Integer.class);
+        String role = claims.get("role", String.class);
+        if (!claimsMode || id == null || role == null) {
+            // tokens without the principal claims still go through the DB
+            return userService.userDetailsService().loadUserByUsername(username);
+        }
+
+        Customer principal = Customer.builder()
+                .id(id)
+                .username(username)
+                .email(claims.get("email", String.class))
+                .role(Role.valueOf(role))
+                .build();
+
+        if (currentRoles != null) {
+            Optional<Role> currentRole = currentRoles.get(username, customerRepository::findRoleByUsername);
+            if (currentRole.isEmpty() || currentRole.get() != principal.getRole()) {
+                return null;
+            }
+        }
+        return principal;
+    }
+}
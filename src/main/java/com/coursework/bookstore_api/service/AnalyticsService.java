@@ -0,0 +1,27 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.dto.DailySalesDto;
+import com.coursework.bookstore_api.dto.SalesDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+    List<DailySalesDto> findDailySales(LocalDate from, LocalDate to);
+
+    List<SalesDto> findTopBooks(int limit);
+
+    List<SalesDto> findTopPublishers(int limit);
+
+    List<SalesDto> findTopGenres(int limit);
+
+    /**
+     * Folds the orders placed since the previous refresh into the rollups.
+     */
+    void refresh();
+
+    /**
+     * Empties the rollups; the following refreshes rebuild them from the whole order history.
+     */
+    void rebuild();
+}
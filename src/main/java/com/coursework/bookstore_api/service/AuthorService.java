@@ -10,6 +10,8 @@ public interface AuthorService {
 
     AuthorsResponse findAll(int pageNo, int pageSize);
 
+    AuthorsResponse findAllAfter(String cursor, int pageSize);
+
     AuthorDto findById(int id);
     
     AuthorDto save(AuthorDto authorDto);
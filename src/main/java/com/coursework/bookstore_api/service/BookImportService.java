@@ -0,0 +1,10 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.bookimport.BookImportFormat;
+import com.coursework.bookstore_api.dto.BookImportReportDto;
+
+import java.io.InputStream;
+
+public interface BookImportService {
+    BookImportReportDto importBooks(InputStream input, BookImportFormat format);
+}
@@ -1,6 +1,7 @@
 package com.coursework.bookstore_api.service;
 
 import com.coursework.bookstore_api.dto.BookDto;
+import com.coursework.bookstore_api.dto.SuggestionDto;
 import com.coursework.bookstore_api.dto.request.BookRequest;
 import com.coursework.bookstore_api.dto.response.BooksResponse;
 
@@ -11,6 +12,8 @@ public interface BookService {
 
     BooksResponse findAll(int pageNo, int pageSize);
 
+    BooksResponse findAllAfter(String cursor, int pageSize);
+
     BookDto findById(int id);
 
     BookDto save(BookRequest bookDto);
@@ -28,4 +31,6 @@ public interface BookService {
     BooksResponse findAllByTitle(String title, int pageNo, int pageSize);
 
     BooksResponse getFilteredBooks(String title, Integer publisherId, Integer authorId, Integer genreId, int pageNo, int pageSize);
+
+    List<SuggestionDto> suggest(String prefix, int limit);
 }
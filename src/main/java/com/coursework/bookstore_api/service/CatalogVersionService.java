@@ -0,0 +1,124 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.event.BookChangedEvent;
+import com.coursework.bookstore_api.event.BookStatsChangedEvent;
+import com.coursework.bookstore_api.event.CatalogChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceDataChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory versions of the catalogue collections and of the single resources in them, used to build strong
+ * ETags without touching the DB. Versions are bumped by the write events of the services after commit, and every
+ * tag includes the startup time, so tags issued before a restart never match again.
+ */
+@Service
+public class CatalogVersionService {
+    public static final String BOOKS = "books";
+    public static final String AUTHORS = "authors";
+    public static final String GENRES = "genres";
+    public static final String LANGUAGES = "languages";
+    public static final String PUBLISHERS = "publishers";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    // Bumped by changes that may touch any book (renamed references, bulk generation and imports)
+    private final AtomicLong bookGeneration = new AtomicLong();
+    private final Map<String, Long> collectionVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> resourceVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Tag of a collection response; the discriminators are the request parameters that select the page. They are
+     * length-prefixed and hashed with SHA-256, so that two different requests never share a tag.
+     */
+    public String collectionTag(String collection, Object... discriminators) {
+        String tag = collection + "-" + epoch + "-" + collectionVersions.getOrDefault(collection, 0L);
+        if (discriminators.length > 0) {
+            tag += "-" + digest(discriminators);
+        }
+        return tag;
+    }
+
+    // First 128 bits of the digest, as hex
+    private static String digest(Object[] discriminators) {
+        StringBuilder parameters = new StringBuilder();
+        for (Object discriminator : discriminators) {
+            if (discriminator == null) {
+                parameters.append('-');
+            } else {
+                String value = discriminator.toString();
+                parameters.append(value.length()).append(':').append(value);
+            }
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(parameters.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String resourceTag(String collection, int id) {
+        String tag = collection + "-" + id + "-" + epoch + "-" + resourceVersions.getOrDefault(collection + ":" + id, 0L);
+        return BOOKS.equals(collection) ? tag + "-" + bookGeneration.get() : tag;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        bump(BOOKS, event.bookId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        bump(collectionOf(event.referenceType()), event.id());
+        if (event.affectsBooks()) {
+            bumpBooks();
+        }
+    }
+
+    // A bulk change such as an import may also have created authors, genres, languages and publishers
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        for (String collection : List.of(AUTHORS, GENRES, LANGUAGES, PUBLISHERS)) {
+            collectionVersions.put(collection, sequence.incrementAndGet());
+        }
+        bumpBooks();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookStatsChanged(BookStatsChangedEvent event) {
+        bumpBooks();
+    }
+
+    private void bump(String collection, int id) {
+        long version = sequence.incrementAndGet();
+        collectionVersions.put(collection, version);
+        resourceVersions.put(collection + ":" + id, version);
+    }
+
+    private void bumpBooks() {
+        collectionVersions.put(BOOKS, sequence.incrementAndGet());
+        bookGeneration.incrementAndGet();
+    }
+
+    private static String collectionOf(ReferenceType referenceType) {
+        return switch (referenceType) {
+            case AUTHOR -> AUTHORS;
+            case GENRE -> GENRES;
+            case LANGUAGE -> LANGUAGES;
+            case PUBLISHER -> PUBLISHERS;
+        };
+    }
+}
@@ -1,28 +1,24 @@
 package com.coursework.bookstore_api.service;
 
-import com.coursework.bookstore_api.model.Log;
 import com.coursework.bookstore_api.model.LogLevel;
-import com.coursework.bookstore_api.repository.LogRepository;
+import com.coursework.bookstore_api.util.logging.DatabaseLogSink;
+import com.coursework.bookstore_api.util.logging.LogEvent;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 
 @Service
 public class DatabaseLoggerService {
 
-    private final LogRepository logRepository;
+    private final DatabaseLogSink databaseLogSink;
 
-    public DatabaseLoggerService(LogRepository logRepository) {
-        this.logRepository = logRepository;
+    public DatabaseLoggerService(DatabaseLogSink databaseLogSink) {
+        this.databaseLogSink = databaseLogSink;
     }
 
+    /**
+     * Queues the log for the background batch writer, so callers never wait for the DB.
+     */
     public void saveLog(LogLevel level, String logger, String message) {
-        Log logEntity = new Log();
-        logEntity.setTimestamp(LocalDateTime.now());
-        logEntity.setLevel(level);
-        logEntity.setLoggerName(logger);
-        logEntity.setMessage(message);
-
-        logRepository.save(logEntity);
+        databaseLogSink.offer(new LogEvent(LocalDateTime.now(), level, logger, message));
     }
 }
-
@@ -0,0 +1,19 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.dto.GenerationJobDto;
+import com.coursework.bookstore_api.util.datageneration.GenerationProgress;
+import com.coursework.bookstore_api.util.datageneration.GenerationReport;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
+
+import java.util.List;
+import java.util.function.Function;
+
+public interface GenerationJobService {
+    GenerationJobDto submit(String type, GenerationSettings settings, Function<GenerationProgress, GenerationReport> task);
+
+    List<GenerationJobDto> findAll();
+
+    GenerationJobDto findById(String jobId);
+
+    GenerationJobDto cancel(String jobId);
+}
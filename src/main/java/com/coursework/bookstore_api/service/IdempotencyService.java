@@ -0,0 +1,10 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.dto.OrderDto;
+
+public interface IdempotencyService {
+    /**
+     * Places the order once per key: a retry with the same key and the same order gets the first response back.
+     */
+    OrderDto placeOrder(String idempotencyKey, OrderDto orderDto);
+}
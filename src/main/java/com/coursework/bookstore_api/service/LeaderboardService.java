@@ -0,0 +1,11 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.dto.LeaderboardEntryDto;
+
+import java.util.List;
+
+public interface LeaderboardService {
+    List<LeaderboardEntryDto> findBestsellers(int limit);
+
+    List<LeaderboardEntryDto> findMostReviewed(int limit);
+}
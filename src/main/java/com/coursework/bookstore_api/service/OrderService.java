@@ -1,6 +1,11 @@
 package com.coursework.bookstore_api.service;
 
+import com.coursework.bookstore_api.dto.GenerationJobDto;
 import com.coursework.bookstore_api.dto.OrderDto;
+import com.coursework.bookstore_api.dto.response.OrderSummariesResponse;
+import com.coursework.bookstore_api.dto.response.OrdersResponse;
+import com.coursework.bookstore_api.repository.OrderFilter;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
 
 import java.util.List;
 
@@ -17,5 +22,11 @@ public interface OrderService {
 
     List<OrderDto> findAllByCustomerId(int customerId);
 
-    void generateOrders(int ordersCount);
+    OrdersResponse findAll(OrderFilter filter, String cursor, int pageSize);
+
+    OrdersResponse findHistory(int customerId, int pageNo, int pageSize);
+
+    OrderSummariesResponse findHistorySummary(int customerId, int pageNo, int pageSize);
+
+    GenerationJobDto generateOrders(GenerationSettings settings);
 }
@@ -1,6 +1,9 @@
 package com.coursework.bookstore_api.service;
 
+import com.coursework.bookstore_api.dto.GenerationJobDto;
 import com.coursework.bookstore_api.dto.ReviewDto;
+import com.coursework.bookstore_api.dto.response.ReviewsResponse;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
 
 import java.util.List;
 
@@ -8,6 +11,8 @@ public interface ReviewService {
     List<ReviewDto> findAll();
     
     ReviewDto findById(int id);
+
+    ReviewsResponse findByBookId(int bookId, String cursor, int pageSize);
     
     ReviewDto save(ReviewDto reviewDto);
     
@@ -15,5 +20,5 @@ public interface ReviewService {
     
     void deleteById(int id);
 
-    void generateReviews(int reviewsCount);
+    GenerationJobDto generateReviews(GenerationSettings settings);
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.coursework.bookstore_api.service.impl;
+
+import com.coursework.bookstore_api.dto.DailySalesDto;
+import com.coursework.bookstore_api.dto.SalesDto;
+import com.coursework.bookstore_api.repository.AnalyticsRepository;
+import com.coursework.bookstore_api.repository.AnalyticsRepository.Watermark;
+import com.coursework.bookstore_api.service.AnalyticsService;
+import com.coursework.bookstore_api.util.Paging;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sales rollups refreshed by a scheduled delta job keyed on payment_id. Order ids come from a sequence but
+ * commit in any order, so an id seen by one refresh is only folded in by the next one: by then every order
+ * with a lower id has committed or rolled back, as long as checkouts take less than the refresh interval.
+ * Order updates and deletions are not tracked; {@link #rebuild()} recomputes everything.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    private final AnalyticsRepository analyticsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public AnalyticsServiceImpl(AnalyticsRepository analyticsRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${analytics.refresh.batch-size:50000}") int batchSize) {
+        this.analyticsRepository = analyticsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<DailySalesDto> findDailySales(LocalDate from, LocalDate to) {
+        return analyticsRepository.findDailySales(from, to);
+    }
+
+    @Override
+    public List<SalesDto> findTopBooks(int limit) {
+        return analyticsRepository.findTopBooks(Paging.limit(limit));
+    }
+
+    @Override
+    public List<SalesDto> findTopPublishers(int limit) {
+        return analyticsRepository.findTopPublishers(Paging.limit(limit));
+    }
+
+    @Override
+    public List<SalesDto> findTopGenres(int limit) {
+        return analyticsRepository.findTopGenres(Paging.limit(limit));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${analytics.refresh.interval:PT1M}",
+            initialDelayString = "${analytics.refresh.interval:PT1M}")
+    public void refresh() {
+        long start = System.nanoTime();
+        long folded = 0;
+        // Catching up on a long history is split into batches, each committed with its own watermark
+        BatchResult batch;
+        do {
+            batch = transactionTemplate.execute(status -> refreshBatch());
+            folded += batch.folded();
+        } while (batch.more());
+        if (folded > 0) {
+            logger.info("Sales rollups refreshed: {} order ids folded in {} ms",
+                    folded, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            analyticsRepository.lockWatermark(AnalyticsRepository.SALES_WATERMARK);
+            analyticsRepository.clear(AnalyticsRepository.SALES_WATERMARK);
+        });
+        logger.info("Sales rollups cleared, the next refreshes rebuild them");
+    }
+
+    private record BatchResult(int folded, boolean more) {
+    }
+
+    private BatchResult refreshBatch() {
+        Watermark watermark = analyticsRepository.lockWatermark(AnalyticsRepository.SALES_WATERMARK);
+        int from = watermark.lastPaymentId();
+        int upTo = Math.min(watermark.settlingPaymentId(), from + batchSize);
+        if (upTo > from) {
+            analyticsRepository.addOrders(from, upTo);
+        }
+        boolean more = upTo < watermark.settlingPaymentId();
+        int settling = more ? watermark.settlingPaymentId() : analyticsRepository.findMaxPaymentId();
+        analyticsRepository.saveWatermark(AnalyticsRepository.SALES_WATERMARK,
+                new Watermark(Math.max(upTo, from), Math.max(settling, from)));
+        return new BatchResult(Math.max(upTo - from, 0), more);
+    }
+}
@@ -2,14 +2,20 @@ package com.coursework.bookstore_api.service.impl;
 
 import com.coursework.bookstore_api.dto.AuthorDto;
 import com.coursework.bookstore_api.dto.response.AuthorsResponse;
+import com.coursework.bookstore_api.event.ChangeType;
+import com.coursework.bookstore_api.event.ReferenceDataChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceType;
 import com.coursework.bookstore_api.exceptions.AuthorNotFoundException;
 import com.coursework.bookstore_api.model.Author;
 import com.coursework.bookstore_api.repository.AuthorRepository;
 import com.coursework.bookstore_api.service.AuthorService;
+import com.coursework.bookstore_api.util.KeysetCursor;
 import com.coursework.bookstore_api.util.PageResponseFormatter;
+import com.coursework.bookstore_api.util.Paging;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +26,7 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class AuthorServiceImpl implements AuthorService {
     private final AuthorRepository authorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<AuthorDto> findAll() {
@@ -28,11 +35,19 @@ public class AuthorServiceImpl implements AuthorService {
 
     @Override
     public AuthorsResponse findAll(int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize);
         Page<Author> authorsPage = authorRepository.findAll(pageable);
         return PageResponseFormatter.createAuthorsPageResponse(pageNo, pageSize, authorsPage);
     }
 
+    @Override
+    public AuthorsResponse findAllAfter(String cursor, int pageSize) {
+        int lastId = KeysetCursor.decode(cursor);
+        List<Author> authors = authorRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                Limit.of(Paging.keysetLimit(pageSize)));
+        return PageResponseFormatter.createAuthorsKeysetResponse(pageSize, authors);
+    }
+
     @Override
     public AuthorDto findById(int id) {
         return AuthorDto.from(Objects.requireNonNull(authorRepository
@@ -43,7 +58,9 @@ public class AuthorServiceImpl implements AuthorService {
     @Override
     public AuthorDto save(AuthorDto authorDto) {
         Author author = AuthorDto.toAuthor(authorDto);
-        return AuthorDto.from(authorRepository.save(author));
+        AuthorDto savedAuthor = AuthorDto.from(authorRepository.save(author));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.AUTHOR, savedAuthor.getId(), ChangeType.CREATED));
+        return savedAuthor;
     }
 
     @Override
@@ -52,11 +69,14 @@ public class AuthorServiceImpl implements AuthorService {
                 .orElseThrow(() -> new AuthorNotFoundException("Author not found"));
         existingAuthor.setName(authorDto.getName());
 
-        return AuthorDto.from(authorRepository.save(existingAuthor));
+        AuthorDto updatedAuthor = AuthorDto.from(authorRepository.save(existingAuthor));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.AUTHOR, id, ChangeType.UPDATED));
+        return updatedAuthor;
     }
 
     @Override
     public void deleteById(int id) {
         authorRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.AUTHOR, id, ChangeType.DELETED));
     }
 }
@@ -0,0 +1,363 @@
+package com.coursework.bookstore_api.service.impl;
+
+import com.coursework.bookstore_api.bookimport.BookImportFormat;
+import com.coursework.bookstore_api.bookimport.BookImportReader;
+import com.coursework.bookstore_api.bookimport.BookImportRow;
+import com.coursework.bookstore_api.bookimport.InvalidImportRowException;
+import com.coursework.bookstore_api.bookimport.ReferenceResolver;
+import com.coursework.bookstore_api.constants.CacheNames;
+import com.coursework.bookstore_api.dto.BookImportReportDto;
+import com.coursework.bookstore_api.event.CatalogChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceType;
+import com.coursework.bookstore_api.repository.BookImportRepository;
+import com.coursework.bookstore_api.repository.BookImportRepository.BookLink;
+import com.coursework.bookstore_api.repository.BookImportRepository.NewBook;
+import com.coursework.bookstore_api.service.BookImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk book imports. The request thread parses the file as a stream and hands batches of rows to a fixed set of
+ * workers; each worker upserts its batches with JDBC batches, one transaction per batch. Rows with an ISBN always
+ * go to the same worker, so that two batches never write the same book at once. When a batch fails, its rows are
+ * retried one by one so that only the offending rows are reported.
+ */
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private static final Logger logger = LoggerFactory.getLogger(BookImportServiceImpl.class);
+
+    // Batches parsed ahead per worker; bounds the memory used when the DB is slower than the parser
+    private static final int QUEUE_CAPACITY = 2;
+    private static final List<BookImportRow> END_OF_INPUT = List.of();
+    // How long a failed import waits for its other workers to finish their current batch
+    private static final long WORKER_SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+    private final BookImportRepository bookImportRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+    private final int workers;
+    private final int maxErrors;
+
+    private record BatchResult(int created, int updated) {
+    }
+
+    // Counters of one import, shared by the parser and the workers
+    private static class ImportRun {
+        private final int maxErrors;
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<BookImportReportDto.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+
+        ImportRun(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void written(BatchResult result) {
+            created.addAndGet(result.created());
+            updated.addAndGet(result.updated());
+        }
+
+        void fail(long rowNumber, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new BookImportReportDto.RowError(rowNumber, message));
+                }
+            }
+        }
+    }
+
+    public BookImportServiceImpl(BookImportRepository bookImportRepository, ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                                 @Value("${books.import.batch-size:5000}") int batchSize,
+                                 @Value("${books.import.workers:4}") int workers,
+                                 @Value("${books.import.max-errors:1000}") int maxErrors) {
+        this.bookImportRepository = bookImportRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public BookImportReportDto importBooks(InputStream input, BookImportFormat format) {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun(maxErrors);
+        ReferenceResolver references = new ReferenceResolver(bookImportRepository, transactionTemplate);
+        String abortReason = null;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "book-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<BlockingQueue<List<BookImportRow>>> queues = new ArrayList<>();
+            List<Future<?>> futures = new ArrayList<>();
+            List<List<BookImportRow>> pending = new ArrayList<>();
+            for (int worker = 0; worker < workers; worker++) {
+                BlockingQueue<List<BookImportRow>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+                queues.add(queue);
+                futures.add(executor.submit(() -> {
+                    drain(queue, references, run);
+                    return null;
+                }));
+                pending.add(new ArrayList<>(batchSize));
+            }
+
+            try (BookImportReader reader = format.open(input, objectMapper)) {
+                while (true) {
+                    BookImportRow row;
+                    try {
+                        row = reader.next();
+                    } catch (InvalidImportRowException e) {
+                        run.rowsRead++;
+                        run.fail(e.getRowNumber(), e.getMessage());
+                        continue;
+                    }
+                    if (row == null) {
+                        break;
+                    }
+                    run.rowsRead++;
+                    int worker = workerOf(row);
+                    pending.get(worker).add(row);
+                    if (pending.get(worker).size() == batchSize) {
+                        handOver(queues.get(worker), futures.get(worker), pending.get(worker));
+                        pending.set(worker, new ArrayList<>(batchSize));
+                    }
+                }
+            } catch (IOException e) {
+                abortReason = "Stopped after row " + run.rowsRead + ": " + e.getMessage();
+                logger.warn("Book import stopped early: {}", abortReason);
+            }
+
+            // The rows read before a malformed part of the file are valid, so they are written in any case
+            for (int worker = 0; worker < workers; worker++) {
+                if (!pending.get(worker).isEmpty()) {
+                    handOver(queues.get(worker), futures.get(worker), pending.get(worker));
+                }
+                handOver(queues.get(worker), futures.get(worker), END_OF_INPUT);
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Book import was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Book import failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+            awaitWorkers(executor);
+            afterImport(run, references);
+        }
+
+        BookImportReportDto report = report(run, references, abortReason, System.nanoTime() - start);
+        logger.info("Imported {} rows: {} books created, {} updated, {} failed in {} ms ({} books/s)",
+                report.getRowsRead(), report.getBooksCreated(), report.getBooksUpdated(), report.getRowsFailed(),
+                report.getDurationMs(), String.format("%.0f", report.getBooksPerSecond()));
+        return report;
+    }
+
+    private int workerOf(BookImportRow row) {
+        return row.isbn() != null
+                ? Math.floorMod(row.isbn().hashCode(), workers)
+                : (int) (row.rowNumber() % workers);
+    }
+
+    // Waits for room in the worker's queue, unless the worker has died
+    private static void handOver(BlockingQueue<List<BookImportRow>> queue, Future<?> worker,
+                                 List<BookImportRow> batch) throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (worker.isDone()) {
+                worker.get();
+                throw new IllegalStateException("An import worker stopped unexpectedly");
+            }
+        }
+    }
+
+    private void drain(BlockingQueue<List<BookImportRow>> queue, ReferenceResolver references, ImportRun run)
+            throws InterruptedException {
+        while (true) {
+            List<BookImportRow> batch = queue.take();
+            if (batch == END_OF_INPUT) {
+                return;
+            }
+            write(batch, references, run);
+        }
+    }
+
+    private void write(List<BookImportRow> rows, ReferenceResolver references, ImportRun run) {
+        try {
+            references.resolveAll(rows);
+            run.written(Objects.requireNonNull(transactionTemplate.execute(status -> writeBooks(rows, references))));
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                run.fail(rows.get(0).rowNumber(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            logger.warn("Import batch of {} rows failed, retrying row by row: {}", rows.size(), e.getMessage());
+            for (BookImportRow row : rows) {
+                write(List.of(row), references, run);
+            }
+        }
+    }
+
+    private BatchResult writeBooks(List<BookImportRow> rows, ReferenceResolver references) {
+        List<String> isbns = rows.stream().map(BookImportRow::isbn).filter(Objects::nonNull).distinct().toList();
+        Map<String, Integer> bookIdsByIsbn = isbns.isEmpty()
+                ? new LinkedHashMap<>()
+                : new LinkedHashMap<>(bookImportRepository.findBookIdsByIsbn(isbns));
+
+        int newBooks = (int) rows.stream()
+                .filter(row -> row.isbn() == null || !bookIdsByIsbn.containsKey(row.isbn()))
+                .map(row -> row.isbn() == null ? "#" + row.rowNumber() : row.isbn())
+                .distinct()
+                .count();
+        int[] newIds = newBooks == 0 ? new int[0] : bookImportRepository.nextBookIds(newBooks);
+
+        List<NewBook> inserts = new ArrayList<>();
+        List<NewBook> updates = new ArrayList<>();
+        // The last row for a book decides its authors and genres
+        Map<Integer, BookImportRow> finalRows = new LinkedHashMap<>();
+        int nextNewId = 0;
+        for (BookImportRow row : rows) {
+            Integer existingId = row.isbn() == null ? null : bookIdsByIsbn.get(row.isbn());
+            int bookId = existingId != null ? existingId : newIds[nextNewId++];
+            NewBook book = new NewBook(bookId, row.isbn(), row.title(), row.price(), row.numberInStock(),
+                    row.imageUrl(), references.id(ReferenceType.PUBLISHER, row.publisher()),
+                    references.id(ReferenceType.LANGUAGE, row.language()));
+            if (existingId != null) {
+                updates.add(book);
+            } else {
+                inserts.add(book);
+                if (row.isbn() != null) {
+                    // a later row with the same ISBN in this batch updates this book
+                    bookIdsByIsbn.put(row.isbn(), bookId);
+                }
+            }
+            finalRows.put(bookId, row);
+        }
+        // Stable, so that repeated updates of one book keep their order
+        updates.sort(Comparator.comparingInt(NewBook::id));
+
+        if (!inserts.isEmpty()) {
+            bookImportRepository.insertBooks(inserts);
+        }
+        if (!updates.isEmpty()) {
+            bookImportRepository.updateBooks(updates);
+            bookImportRepository.deleteLinks(updates.stream().map(NewBook::id).distinct().toList());
+        }
+
+        List<BookLink> authorLinks = new ArrayList<>();
+        List<BookLink> genreLinks = new ArrayList<>();
+        finalRows.forEach((bookId, row) -> {
+            row.authors().stream().map(name -> references.id(ReferenceType.AUTHOR, name)).distinct()
+                    .forEach(authorId -> authorLinks.add(new BookLink(bookId, authorId)));
+            row.genres().stream().map(name -> references.id(ReferenceType.GENRE, name)).distinct()
+                    .forEach(genreId -> genreLinks.add(new BookLink(bookId, genreId)));
+        });
+        if (!authorLinks.isEmpty()) {
+            bookImportRepository.insertAuthorLinks(authorLinks);
+        }
+        if (!genreLinks.isEmpty()) {
+            bookImportRepository.insertGenreLinks(genreLinks);
+        }
+        return new BatchResult(inserts.size(), updates.size());
+    }
+
+    // The import is announced once, after the last batch has committed, so that the index reloads it triggers
+    // see all of it
+    private static void awaitWorkers(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(WORKER_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Book import workers are still running after {} s", WORKER_SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Whatever was committed is announced, even when the import failed half-way
+    private void afterImport(ImportRun run, ReferenceResolver references) {
+        if (references.created(ReferenceType.GENRE) > 0) {
+            evictAll(CacheNames.GENRES);
+        }
+        if (references.created(ReferenceType.LANGUAGE) > 0) {
+            evictAll(CacheNames.LANGUAGES);
+        }
+        if (references.created(ReferenceType.PUBLISHER) > 0) {
+            evictAll(CacheNames.PUBLISHERS);
+        }
+        if (run.created.get() + run.updated.get() > 0) {
+            eventPublisher.publishEvent(new CatalogChangedEvent("books imported"));
+        }
+    }
+
+    private void evictAll(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static BookImportReportDto report(ImportRun run, ReferenceResolver references, String abortReason,
+                                              long nanos) {
+        BookImportReportDto report = new BookImportReportDto();
+        report.setRowsRead(run.rowsRead);
+        report.setBooksCreated(run.created.get());
+        report.setBooksUpdated(run.updated.get());
+        report.setRowsFailed(run.failed.get());
+        long referencesCreated = 0;
+        for (ReferenceType type : ReferenceType.values()) {
+            referencesCreated += references.created(type);
+        }
+        report.setReferencesCreated(referencesCreated);
+        report.setDurationMs(nanos / 1_000_000);
+        report.setBooksPerSecond((run.created.get() + run.updated.get()) / Math.max(nanos / 1e9, 1e-9));
+        report.setCompleted(abortReason == null);
+        report.setAbortReason(abortReason);
+        synchronized (run.errors) {
+            report.setErrors(new ArrayList<>(run.errors));
+        }
+        report.setErrorsTruncated(run.failed.get() > report.getErrors().size());
+        return report;
+    }
+}
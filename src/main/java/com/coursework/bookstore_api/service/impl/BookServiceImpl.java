@@ -1,92 +1,159 @@
 package com.coursework.bookstore_api.service.impl;
 
+import com.coursework.bookstore_api.constants.CacheNames;
 import com.coursework.bookstore_api.dto.BookDto;
+import com.coursework.bookstore_api.dto.BookRatingDto;
+import com.coursework.bookstore_api.dto.GenreDto;
+import com.coursework.bookstore_api.dto.LanguageDto;
+import com.coursework.bookstore_api.dto.PublisherDto;
+import com.coursework.bookstore_api.dto.SuggestionDto;
 import com.coursework.bookstore_api.dto.request.BookRequest;
 import com.coursework.bookstore_api.dto.response.BooksResponse;
+import com.coursework.bookstore_api.event.BookChangedEvent;
+import com.coursework.bookstore_api.event.ChangeType;
 import com.coursework.bookstore_api.exceptions.BookNotFoundException;
-import com.coursework.bookstore_api.exceptions.LanguageNotFoundException;
 import com.coursework.bookstore_api.model.Book;
+import com.coursework.bookstore_api.model.Genre;
 import com.coursework.bookstore_api.repository.*;
+import com.coursework.bookstore_api.repository.specification.BookSpecifications;
+import com.coursework.bookstore_api.search.BookSearchIndex;
+import com.coursework.bookstore_api.search.SuggestionIndex;
 import com.coursework.bookstore_api.service.BookService;
+import com.coursework.bookstore_api.service.GenreService;
+import com.coursework.bookstore_api.service.LanguageService;
+import com.coursework.bookstore_api.service.PublisherService;
+import com.coursework.bookstore_api.util.BookDtoAssembler;
+import com.coursework.bookstore_api.util.KeysetCursor;
 import com.coursework.bookstore_api.util.PageResponseFormatter;
+import com.coursework.bookstore_api.util.Paging;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final PublisherRepository publisherRepository;
     private final LanguageRepository languageRepository;
     private final GenreRepository genreRepository;
+    private final BookRatingRepository bookRatingRepository;
+    private final BookDtoAssembler bookDtoAssembler;
+    private final LanguageService languageService;
+    private final PublisherService publisherService;
+    private final GenreService genreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookSearchIndex bookSearchIndex;
+    private final SuggestionIndex suggestionIndex;
 
     @Override
     public List<BookDto> findAll() {
-        return bookRepository.findAll().stream().map(BookDto::from).toList();
+        return bookDtoAssembler.toDtos(bookRepository.findAll());
     }
 
     @Override
     public BooksResponse findAll(int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize);
         Page<Book> booksPage = bookRepository.findAll(pageable);
-        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage);
+        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage, bookDtoAssembler::toDtos);
     }
 
     @Override
+    public BooksResponse findAllAfter(String cursor, int pageSize) {
+        int lastId = KeysetCursor.decode(cursor);
+        List<Book> books = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                Limit.of(Paging.keysetLimit(pageSize)));
+        return PageResponseFormatter.createBooksKeysetResponse(pageSize, books, bookDtoAssembler::toDtos);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.BOOK_DETAILS, key = "#id")
     public BookDto findById(int id) {
-        return BookDto.from(Objects.requireNonNull(bookRepository
-                .findById(id)
-                .orElseThrow(() -> new BookNotFoundException("Book not found"))));
+        return bookDtoAssembler.toDto(bookRepository.findById(id)
+                .orElseThrow(() -> new BookNotFoundException("Book not found")));
     }
 
     @Override
+    @Transactional
     public BookDto save(BookRequest bookDto) {
-        System.out.println(bookDto);
+        LanguageDto language = languageService.findById(bookDto.getLanguageId());
+        PublisherDto publisher = publisherService.findById(Integer.parseInt(bookDto.getPublisherId()));
+        List<GenreDto> genres = findGenres(bookDto.getGenreIds());
+
         Book book = Book.builder()
                 .title(bookDto.getTitle())
                 .price(bookDto.getPrice())
                 .numberInStock(bookDto.getNumberInStock())
                 .imageUrl(bookDto.getImageUrl())
-                .language(languageRepository.findById(bookDto.getLanguageId())
-                        .orElseThrow(() -> new LanguageNotFoundException("Language not found")))
+                .language(languageRepository.getReferenceById(language.getId()))
                 .authors(authorRepository.findAllById(bookDto.getAuthorIds()))
-                .genres(genreRepository.findAllById(bookDto.getGenreIds()))
-                .publisher(publisherRepository.findById(Integer.parseInt(bookDto.getPublisherId()))
-                        .orElseThrow(() -> new RuntimeException("Publisher not found")))
+                .genres(genreReferences(genres))
+                .publisher(publisherRepository.getReferenceById(publisher.getId()))
                 .build();
 
         book = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(book.getId(), ChangeType.CREATED));
 
-        return BookDto.from(book);
+        return BookDto.from(book, language, publisher, genres);
     }
 
     @Override
+    @Transactional
     public BookDto update(int id, BookRequest bookDto) {
         Book existingBook = bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found"));
+        LanguageDto language = languageService.findById(bookDto.getLanguageId());
+        PublisherDto publisher = publisherService.findById(Integer.parseInt(bookDto.getPublisherId()));
+        List<GenreDto> genres = findGenres(bookDto.getGenreIds());
 
         existingBook.setTitle(bookDto.getTitle());
         existingBook.setPrice(bookDto.getPrice());
         existingBook.setNumberInStock(bookDto.getNumberInStock());
         existingBook.setImageUrl(bookDto.getImageUrl());
-        existingBook.setLanguage(languageRepository.findById(bookDto.getLanguageId())
-                        .orElseThrow(() -> new LanguageNotFoundException("Language not found")));
+        existingBook.setLanguage(languageRepository.getReferenceById(language.getId()));
         existingBook.setAuthors(authorRepository.findAllById(bookDto.getAuthorIds()));
-        existingBook.setGenres(genreRepository.findAllById(bookDto.getGenreIds()));
-        existingBook.setPublisher(publisherRepository.findById(Integer.parseInt(bookDto.getPublisherId()))
-                        .orElseThrow(() -> new RuntimeException("Publisher not found")));
+        existingBook.setGenres(genreReferences(genres));
+        existingBook.setPublisher(publisherRepository.getReferenceById(publisher.getId()));
+
+        Book savedBook = bookRepository.save(existingBook);
+        eventPublisher.publishEvent(new BookChangedEvent(id, ChangeType.UPDATED));
+        BookDto dto = BookDto.from(savedBook, language, publisher, genres);
+        dto.setRating(bookRatingRepository.findByBookId(id).map(BookRatingDto::from).orElseGet(BookRatingDto::empty));
+        return dto;
+    }
+
+    // Genres are validated against the cached genre service, so the write itself only needs references
+    private List<GenreDto> findGenres(List<Integer> genreIds) {
+        return genreIds.stream().distinct().map(genreService::findById).toList();
+    }
 
-        return BookDto.from(bookRepository.save(existingBook));
+    private List<Genre> genreReferences(List<GenreDto> genres) {
+        return genres.stream()
+                .map(genre -> genreRepository.getReferenceById(genre.getId()))
+                .collect(Collectors.toCollection(ArrayList::new));
     }
 
     @Override
+    @Transactional
     public void deleteById(int id) {
         Book bookToDelete = bookRepository.findById(id).orElseThrow(() -> new BookNotFoundException("Book not found"));
         bookToDelete.getReviews().clear();
@@ -97,76 +164,83 @@ public class BookServiceImpl implements BookService {
         bookRepository.save(bookToDelete);
 
         bookRepository.delete(bookToDelete);
+        bookRatingRepository.deleteByBookId(id);
+        eventPublisher.publishEvent(new BookChangedEvent(id, ChangeType.DELETED));
     }
 
     @Override
     public BooksResponse findAllByPublisherId(int publisherId, int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize);
         Page<Book> booksPage = bookRepository.findAllByPublisherId(publisherId, pageable);
-        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage);
+        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage, bookDtoAssembler::toDtos);
     }
 
     @Override
     public BooksResponse findAllByAuthorId(int authorId, int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize);
         Page<Book> booksPage = bookRepository.findByAuthors_Id(authorId, pageable);
-        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage);
+        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage, bookDtoAssembler::toDtos);
     }
 
     @Override
     public BooksResponse findAllByGenreId(int genreId, int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize);
         Page<Book> booksPage = bookRepository.findByGenres_Id(genreId, pageable);
-        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage);
+        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage, bookDtoAssembler::toDtos);
     }
 
     @Override
     public BooksResponse findAllByTitle(String title, int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        Optional<BooksResponse> ranked = searchByRelevance(title, null, null, null, pageNo, pageSize);
+        if (ranked.isPresent()) {
+            return ranked.get();
+        }
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize);
         Page<Book> booksPage = bookRepository.findByTitleContainingIgnoreCase(title, pageable);
-        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage);
+        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage, bookDtoAssembler::toDtos);
     }
 
     @Override
     public BooksResponse getFilteredBooks(String title, Integer publisherId, Integer authorId, Integer genreId,
                                           int pageNo, int pageSize) {
-        Pageable pageable = PageRequest.of(pageNo, pageSize);
-        List<Book> filteredBooks;
-        if (title == null || title.isEmpty()) {
-            filteredBooks = bookRepository.findAll();
-        } else {
-            filteredBooks = bookRepository.findByTitleContainingIgnoreCase(title);
-        }
-
-        if (publisherId != null) {
-            filteredBooks = filteredBooks.stream()
-                .filter(book -> book.getPublisher().getId() == publisherId)
-                .toList();
-        }
-
-        if (authorId != null) {
-            filteredBooks = filteredBooks.stream()
-                .filter(book -> book.getAuthors().stream()
-                    .anyMatch(author -> author.getId() == authorId))
-                .toList();
+        if (title != null && !title.isBlank()) {
+            Optional<BooksResponse> ranked = searchByRelevance(title, publisherId, authorId, genreId, pageNo, pageSize);
+            if (ranked.isPresent()) {
+                return ranked.get();
+            }
         }
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize, Sort.by("id"));
+        Specification<Book> specification = BookSpecifications.filter(title, publisherId, authorId, genreId);
+        Page<Book> booksPage = bookRepository.findAll(specification, pageable);
+        return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage, bookDtoAssembler::toDtos);
+    }
 
-        if (genreId != null) {
-            filteredBooks = filteredBooks.stream()
-                .filter(book -> book.getGenres().stream()
-                    .anyMatch(genre -> genre.getId() == genreId))
+    @Override
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS)).stream()
+                .map(SuggestionDto::from)
                 .toList();
-        }
-
-        Page<Book> books = bookRepository.findAllByIdIn(filteredBooks.stream().map(Book::getId).toList(), pageable);
-        BooksResponse response = new BooksResponse();
-        response.setContent(books.getContent().stream().map(BookDto::from).toList());
-        response.setPageNo(pageNo);
-        response.setPageSize(pageSize);
-        response.setTotalElements(filteredBooks.size());
-        response.setTotalPages((int) Math.ceil((double) filteredBooks.size() / pageSize));
-        response.setLast(true);
+    }
 
-        return response;
+    // Ranks the matches with the search index and loads only the requested page, in rank order.
+    // Empty while the index is still loading, so that the callers fall back to the LIKE query.
+    private Optional<BooksResponse> searchByRelevance(String query, Integer publisherId, Integer authorId,
+                                                      Integer genreId, int pageNo, int pageSize) {
+        Pageable pageable = Paging.pageRequest(pageNo, pageSize);
+        return bookSearchIndex.search(query, publisherId, authorId, genreId, (int) pageable.getOffset(), pageSize)
+                .map(result -> {
+                    Map<Integer, Integer> rank = new HashMap<>();
+                    for (int i = 0; i < result.bookIds().size(); i++) {
+                        rank.put(result.bookIds().get(i), i);
+                    }
+                    List<Book> books = result.bookIds().isEmpty()
+                            ? List.of()
+                            : bookRepository.findByIdIn(result.bookIds()).stream()
+                                    .sorted(Comparator.comparing(book -> rank.get(book.getId())))
+                                    .toList();
+                    Page<Book> booksPage = new PageImpl<>(books, pageable, result.totalHits());
+                    return PageResponseFormatter.createBooksPageResponse(pageNo, pageSize, booksPage,
+                            bookDtoAssembler::toDtos);
+                });
     }
 }
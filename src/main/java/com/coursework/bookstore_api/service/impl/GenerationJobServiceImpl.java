@@ -0,0 +1,93 @@
+package com.coursework.bookstore_api.service.impl;
+
+import com.coursework.bookstore_api.dto.GenerationJobDto;
+import com.coursework.bookstore_api.exceptions.GenerationJobNotFoundException;
+import com.coursework.bookstore_api.exceptions.InvalidGenerationSettingsException;
+import com.coursework.bookstore_api.service.GenerationJobService;
+import com.coursework.bookstore_api.util.datageneration.GenerationJob;
+import com.coursework.bookstore_api.util.datageneration.GenerationJobExecutor;
+import com.coursework.bookstore_api.util.datageneration.GenerationProgress;
+import com.coursework.bookstore_api.util.datageneration.GenerationReport;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Service
+public class GenerationJobServiceImpl implements GenerationJobService {
+    // Finished jobs kept around for status polling, oldest are dropped first
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    private final GenerationJobExecutor generationJobExecutor;
+    private final int maxWorkers;
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+
+    public GenerationJobServiceImpl(GenerationJobExecutor generationJobExecutor,
+                                    @Value("${generation.jobs.max-workers:4}") int maxWorkers) {
+        this.generationJobExecutor = generationJobExecutor;
+        this.maxWorkers = maxWorkers;
+    }
+
+    @Override
+    public GenerationJobDto submit(String type, GenerationSettings settings,
+                                   Function<GenerationProgress, GenerationReport> task) {
+        // Every worker holds a DB connection and a thread of its own while the job runs
+        if (settings.workers() > maxWorkers) {
+            throw new InvalidGenerationSettingsException("At most " + maxWorkers + " workers are allowed");
+        }
+        pruneFinishedJobs();
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString(), type, settings, task);
+        jobs.put(job.getId(), job);
+        try {
+            generationJobExecutor.submit(job);
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return GenerationJobDto.from(job);
+    }
+
+    @Override
+    public List<GenerationJobDto> findAll() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(GenerationJob::getCreatedAt).reversed())
+                .map(GenerationJobDto::from)
+                .toList();
+    }
+
+    @Override
+    public GenerationJobDto findById(String jobId) {
+        return GenerationJobDto.from(getJob(jobId));
+    }
+
+    @Override
+    public GenerationJobDto cancel(String jobId) {
+        GenerationJob job = getJob(jobId);
+        job.cancel();
+        return GenerationJobDto.from(job);
+    }
+
+    private GenerationJob getJob(String jobId) {
+        GenerationJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new GenerationJobNotFoundException("Generation job with id " + jobId + " not found");
+        }
+        return job;
+    }
+
+    private void pruneFinishedJobs() {
+        List<GenerationJob> finished = jobs.values().stream()
+                .filter(job -> job.getStatus().isFinished())
+                .sorted(Comparator.comparing(GenerationJob::getFinishedAt))
+                .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.coursework.bookstore_api.service.impl;
 
+import com.coursework.bookstore_api.constants.CacheNames;
 import com.coursework.bookstore_api.dto.GenreDto;
+import com.coursework.bookstore_api.event.ChangeType;
+import com.coursework.bookstore_api.event.ReferenceDataChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceType;
 import com.coursework.bookstore_api.exceptions.GenreNotFoundException;
 import com.coursework.bookstore_api.model.Genre;
 import com.coursework.bookstore_api.repository.GenreRepository;
 import com.coursework.bookstore_api.service.GenreService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,13 +24,16 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class GenreServiceImpl implements GenreService {
     private final GenreRepository genreRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Cacheable(cacheNames = CacheNames.GENRES, key = "'" + CacheNames.ALL + "'")
     public List<GenreDto> findAll() {
         return genreRepository.findAll().stream().map(GenreDto::from).toList();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.GENRE, key = "#id")
     public GenreDto findById(int id) {
         return GenreDto.from(Objects.requireNonNull(genreRepository
                 .findById(id)
@@ -29,23 +41,40 @@ public class GenreServiceImpl implements GenreService {
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.GENRE, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheNames.GENRES, allEntries = true)
+    )
     public GenreDto save(GenreDto genreDto) {
         Genre genre = GenreDto.toGenre(genreDto);
-        return GenreDto.from(genreRepository.save(genre));
+        GenreDto savedGenre = GenreDto.from(genreRepository.save(genre));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.GENRE, savedGenre.getId(), ChangeType.CREATED));
+        return savedGenre;
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.GENRE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheNames.GENRES, allEntries = true)
+    )
     public GenreDto update(int id, GenreDto genreDto) {
         Genre existingGenre = genreRepository.findById(id)
                 .orElseThrow(() -> new GenreNotFoundException("Genre not found"));
 
         existingGenre.setGenreName(genreDto.getGenreName());
 
-        return GenreDto.from(genreRepository.save(existingGenre));
+        GenreDto updatedGenre = GenreDto.from(genreRepository.save(existingGenre));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.GENRE, id, ChangeType.UPDATED));
+        return updatedGenre;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.GENRE, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.GENRES, allEntries = true)
+    })
     public void deleteById(int id) {
         genreRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.GENRE, id, ChangeType.DELETED));
     }
 }
@@ -0,0 +1,150 @@
+package com.coursework.bookstore_api.service.impl;
+
+import com.coursework.bookstore_api.dto.OrderDto;
+import com.coursework.bookstore_api.dto.OrderItemDto;
+import com.coursework.bookstore_api.exceptions.IdempotencyKeyReusedException;
+import com.coursework.bookstore_api.exceptions.InvalidOrderException;
+import com.coursework.bookstore_api.model.IdempotencyKey;
+import com.coursework.bookstore_api.repository.IdempotencyKeyRepository;
+import com.coursework.bookstore_api.service.IdempotencyService;
+import com.coursework.bookstore_api.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Idempotency keys of placed orders. A key is claimed in the same transaction that places the order, so either
+ * both are committed or neither is, and a concurrent retry waits on the claim instead of placing a second order.
+ * Completed results are kept in an in-process cache in front of the idempotency_key table, so a replay costs
+ * at most one primary key lookup and never touches the books, customers or stock.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record StoredOrder(String customerName, String requestHash, OrderDto order) {
+    }
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, StoredOrder> storedOrders;
+
+    public IdempotencyServiceImpl(OrderService orderService, IdempotencyKeyRepository idempotencyKeyRepository,
+                                  ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                  @Value("${orders.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${orders.idempotency.cache-size:10000}") long cacheSize) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.storedOrders = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public OrderDto placeOrder(String idempotencyKey, OrderDto orderDto) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidOrderException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters long");
+        }
+        String requestHash = requestHash(orderDto);
+
+        StoredOrder stored = storedOrders.getIfPresent(idempotencyKey);
+        if (stored == null) {
+            stored = transactionTemplate.execute(status -> {
+                int claimed = idempotencyKeyRepository.claim(idempotencyKey, orderDto.getCustomerName(),
+                        requestHash, LocalDateTime.now());
+                if (claimed == 0) {
+                    return null;
+                }
+                OrderDto order = orderService.save(orderDto);
+                idempotencyKeyRepository.complete(idempotencyKey, order.getId(), write(order));
+                return new StoredOrder(orderDto.getCustomerName(), requestHash, order);
+            });
+            if (stored != null) {
+                storedOrders.put(idempotencyKey, stored);
+                return stored.order();
+            }
+            stored = load(idempotencyKey);
+        }
+
+        if (!Objects.equals(stored.customerName(), orderDto.getCustomerName())
+                || !stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used for a different order");
+        }
+        logger.info("Replaying order {} for Idempotency-Key {}", stored.order().getId(), idempotencyKey);
+        return stored.order();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval:PT1H}")
+    public void purgeExpiredKeys() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    // The key was claimed by a committed transaction, which always completes it before committing
+    private StoredOrder load(String idempotencyKey) {
+        IdempotencyKey row = idempotencyKeyRepository.findById(idempotencyKey)
+                .orElseThrow(() -> new IllegalStateException("Idempotency key disappeared: " + idempotencyKey));
+        StoredOrder stored = new StoredOrder(row.getCustomerName(), row.getRequestHash(), read(row.getResponse()));
+        storedOrders.put(idempotencyKey, stored);
+        return stored;
+    }
+
+    // Identifies the order by its customer and lines, so that a key reused for another order is detected
+    private static String requestHash(OrderDto orderDto) {
+        StringBuilder canonical = new StringBuilder(String.valueOf(orderDto.getCustomerName()));
+        for (OrderItemDto item : orderDto.getOrderItems()) {
+            canonical.append('|').append(item.getBookId()).append('x').append(item.getQuantity());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String write(OrderDto order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private OrderDto read(String response) {
+        try {
+            return objectMapper.readValue(response, OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.coursework.bookstore_api.service.impl;
 
+import com.coursework.bookstore_api.constants.CacheNames;
 import com.coursework.bookstore_api.dto.LanguageDto;
+import com.coursework.bookstore_api.event.ChangeType;
+import com.coursework.bookstore_api.event.ReferenceDataChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceType;
 import com.coursework.bookstore_api.exceptions.LanguageNotFoundException;
 import com.coursework.bookstore_api.model.Language;
 import com.coursework.bookstore_api.repository.LanguageRepository;
 import com.coursework.bookstore_api.service.LanguageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,13 +24,16 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class LanguageServiceImpl implements LanguageService {
     private final LanguageRepository languageRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Cacheable(cacheNames = CacheNames.LANGUAGES, key = "'" + CacheNames.ALL + "'")
     public List<LanguageDto> findAll() {
         return languageRepository.findAll().stream().map(LanguageDto::from).toList();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.LANGUAGE, key = "#id")
     public LanguageDto findById(int id) {
         return LanguageDto.from(Objects.requireNonNull(languageRepository
                 .findById(id)
@@ -29,23 +41,40 @@ public class LanguageServiceImpl implements LanguageService {
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.LANGUAGE, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheNames.LANGUAGES, allEntries = true)
+    )
     public LanguageDto save(LanguageDto languageDto) {
         Language language = LanguageDto.toLanguage(languageDto);
-        return LanguageDto.from(languageRepository.save(language));
+        LanguageDto savedLanguage = LanguageDto.from(languageRepository.save(language));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.LANGUAGE, savedLanguage.getId(), ChangeType.CREATED));
+        return savedLanguage;
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.LANGUAGE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheNames.LANGUAGES, allEntries = true)
+    )
     public LanguageDto update(int id, LanguageDto languageDto) {
         Language existingLanguage = languageRepository.findById(id)
                 .orElseThrow(() -> new LanguageNotFoundException("Language not found"));
 
         existingLanguage.setLanguage(languageDto.getLanguage());
 
-        return LanguageDto.from(languageRepository.save(existingLanguage));
+        LanguageDto updatedLanguage = LanguageDto.from(languageRepository.save(existingLanguage));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.LANGUAGE, id, ChangeType.UPDATED));
+        return updatedLanguage;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.LANGUAGE, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.LANGUAGES, allEntries = true)
+    })
     public void deleteById(int id) {
         languageRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.LANGUAGE, id, ChangeType.DELETED));
     }
 }
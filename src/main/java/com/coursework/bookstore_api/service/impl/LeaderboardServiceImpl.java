@@ -0,0 +1,33 @@
+package com.coursework.bookstore_api.service.impl;
+
+import com.coursework.bookstore_api.dto.LeaderboardEntryDto;
+import com.coursework.bookstore_api.leaderboard.BookLeaderboards;
+import com.coursework.bookstore_api.leaderboard.Leaderboard;
+import com.coursework.bookstore_api.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Service
+@RequiredArgsConstructor
+public class LeaderboardServiceImpl implements LeaderboardService {
+    private final BookLeaderboards bookLeaderboards;
+
+    @Override
+    public List<LeaderboardEntryDto> findBestsellers(int limit) {
+        return toDtos(bookLeaderboards.bestsellers(limit));
+    }
+
+    @Override
+    public List<LeaderboardEntryDto> findMostReviewed(int limit) {
+        return toDtos(bookLeaderboards.mostReviewed(limit));
+    }
+
+    private static List<LeaderboardEntryDto> toDtos(List<Leaderboard.Entry> entries) {
+        return IntStream.range(0, entries.size())
+                .mapToObj(i -> LeaderboardEntryDto.from(i + 1, entries.get(i)))
+                .toList();
+    }
+}
@@ -1,40 +1,103 @@
 package com.coursework.bookstore_api.service.impl;
 
+import com.coursework.bookstore_api.dto.GenerationJobDto;
 import com.coursework.bookstore_api.dto.OrderDto;
 import com.coursework.bookstore_api.dto.OrderItemDto;
+import com.coursework.bookstore_api.dto.OrderSummaryDto;
+import com.coursework.bookstore_api.dto.response.OrderSummariesResponse;
+import com.coursework.bookstore_api.dto.response.OrdersResponse;
+import com.coursework.bookstore_api.event.BookChangedEvent;
+import com.coursework.bookstore_api.event.BookStatsChangedEvent;
+import com.coursework.bookstore_api.event.OrderPlacedEvent;
 import com.coursework.bookstore_api.exceptions.BookNotFoundException;
 import com.coursework.bookstore_api.exceptions.CustomerNotFoundException;
+import com.coursework.bookstore_api.exceptions.InvalidOrderException;
 import com.coursework.bookstore_api.exceptions.OrderNotFoundException;
 import com.coursework.bookstore_api.exceptions.OutOfStockException;
 import com.coursework.bookstore_api.model.Book;
 import com.coursework.bookstore_api.model.Customer;
 import com.coursework.bookstore_api.model.Order;
-import com.coursework.bookstore_api.model.OrderItem;
 import com.coursework.bookstore_api.repository.BookRepository;
 import com.coursework.bookstore_api.repository.CustomerRepository;
+import com.coursework.bookstore_api.repository.InventoryRepository;
+import com.coursework.bookstore_api.repository.InventoryRepository.StockLine;
+import com.coursework.bookstore_api.repository.OrderBatchRepository;
+import com.coursework.bookstore_api.repository.OrderBatchRepository.NewOrder;
+import com.coursework.bookstore_api.repository.OrderBatchRepository.NewOrderItem;
+import com.coursework.bookstore_api.repository.OrderFilter;
+import com.coursework.bookstore_api.repository.OrderItemRepository;
 import com.coursework.bookstore_api.repository.OrderRepository;
+import com.coursework.bookstore_api.repository.projection.OrderItemRow;
+import com.coursework.bookstore_api.repository.projection.OrderRow;
+import com.coursework.bookstore_api.service.GenerationJobService;
 import com.coursework.bookstore_api.service.OrderService;
+import com.coursework.bookstore_api.util.KeysetCursor;
+import com.coursework.bookstore_api.util.PageResponseFormatter;
+import com.coursework.bookstore_api.util.Paging;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
 import com.coursework.bookstore_api.util.datageneration.OrderGenerator;
-import lombok.RequiredArgsConstructor;
-import org.springframework.orm.jpa.JpaSystemException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
+    // PostgreSQL's SQLSTATE for a plain RAISE EXCEPTION in PL/pgSQL
+    private static final String RAISE_EXCEPTION_SQL_STATE = "P0001";
+
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final CustomerRepository customerRepository;
     private final BookRepository bookRepository;
+    private final InventoryRepository inventoryRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final OrderGenerator orderGenerator;
+    private final GenerationJobService generationJobService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean reserveStock;
+
+    public OrderServiceImpl(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                            CustomerRepository customerRepository,
+                            BookRepository bookRepository, InventoryRepository inventoryRepository,
+                            OrderBatchRepository orderBatchRepository,
+                            OrderGenerator orderGenerator, GenerationJobService generationJobService,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${orders.stock.reserve-in-app:true}") boolean reserveStock) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.customerRepository = customerRepository;
+        this.bookRepository = bookRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.orderGenerator = orderGenerator;
+        this.generationJobService = generationJobService;
+        this.eventPublisher = eventPublisher;
+        this.reserveStock = reserveStock;
+    }
 
+    // Only the newest orders, with one query for them and one for their items; the listing pages with findAll(filter)
     @Override
     public List<OrderDto> findAll() {
-        return orderRepository.findAll().stream().map(OrderDto::from).toList();
+        OrderFilter everything = new OrderFilter(null, null, null, null, null);
+        return withItems(orderRepository.findRows(everything, null, Paging.MAX_PAGE_SIZE));
     }
 
     @Override
@@ -44,59 +107,103 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new OrderNotFoundException("Order not found"))));
     }
 
+    /**
+     * Places an order in a fixed number of statements whatever its size: one query for the customer, one for
+     * all the books, one batch of stock reservations, one query for the ids and one batch of inserts.
+     */
     @Override
     @Transactional
     public OrderDto save(OrderDto orderDto) {
-        Order order = OrderDto.toOrder(orderDto);
-
-        // Set the current date if not provided
-        if (order.getPaymentDate() == null) {
-            order.setPaymentDate(new Date());
-        }
-
-        // Set the customer for the order
         Customer customer = customerRepository.findByUsername(orderDto.getCustomerName())
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found"));
-        order.setCustomer(customer);
-
-        // Save the order first to get an ID
-        order = orderRepository.save(order);
-
-        // Process order items
-        List<OrderItem> orderItems = new ArrayList<>();
-        double totalAmount = 0.0;
 
+        // Quantities per book, in book id order for the stock reservation
+        Map<Integer, Integer> quantities = new TreeMap<>();
         for (OrderItemDto itemDto : orderDto.getOrderItems()) {
-            Book book = bookRepository.findById(itemDto.getBookId())
-                    .orElseThrow(() -> new BookNotFoundException("Book not found with ID: " + itemDto.getBookId()));
-
-            // Create an order item
-            OrderItem orderItem = new OrderItem();
-            orderItem.setBook(book);
-            orderItem.setOrder(order);
-            orderItem.setQuantity(itemDto.getQuantity());
-            orderItem.setPrice(book.getPrice()); // Use current book price
+            if (itemDto.getQuantity() <= 0) {
+                throw new InvalidOrderException("Quantity must be positive for book with ID: " + itemDto.getBookId());
+            }
+            quantities.merge(itemDto.getBookId(), itemDto.getQuantity(), Integer::sum);
+        }
+        Map<Integer, Book> books = bookRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        for (Integer bookId : quantities.keySet()) {
+            if (!books.containsKey(bookId)) {
+                throw new BookNotFoundException("Book not found with ID: " + bookId);
+            }
+        }
 
-            orderItems.add(orderItem);
+        // Reserve the stock as late as possible, so that the row locks are held only until the commit
+        if (reserveStock) {
+            reserveStock(quantities);
+        }
 
-            // Add to the total amount
+        int orderId = orderBatchRepository.nextOrderIds(1)[0];
+        int[] itemIds = orderBatchRepository.nextOrderItemIds(orderDto.getOrderItems().size());
+        List<NewOrderItem> items = new ArrayList<>(itemIds.length);
+        List<OrderItemDto> itemDtos = new ArrayList<>(itemIds.length);
+        double totalAmount = 0.0;
+        for (OrderItemDto itemDto : orderDto.getOrderItems()) {
+            Book book = books.get(itemDto.getBookId());
+            NewOrderItem item = new NewOrderItem(itemIds[items.size()], orderId, book.getId(),
+                    itemDto.getQuantity(), book.getPrice()); // Use current book price
+            items.add(item);
+            itemDtos.add(OrderItemDto.from(item, book.getTitle()));
             totalAmount += book.getPrice() * itemDto.getQuantity();
         }
+        Date paymentDate = orderDto.getPaymentDate() != null ? orderDto.getPaymentDate() : new Date();
+        NewOrder order = new NewOrder(orderId, customer.getId(), totalAmount, new Timestamp(paymentDate.getTime()),
+                items.size());
 
-        // Update order with items and total amount
-        order.setOrderItems(orderItems);
-        order.setAmount(totalAmount);
-
-        // Save updated order
         try {
-            order = orderRepository.save(order);
-        } catch (JpaSystemException e) {
-            System.out.println("Error saving order: " + e.getMessage());
-            System.out.println(e.getClass().getSimpleName());
+            orderBatchRepository.insertOrders(List.of(order));
+            if (!items.isEmpty()) {
+                orderBatchRepository.insertOrderItems(items);
+            }
+        } catch (DataAccessException e) {
+            // The legacy stock trigger rejects the item insert with RAISE EXCEPTION; anything else is a real failure
+            if (reserveStock || !isRaisedByTrigger(e)) {
+                throw e;
+            }
+            logger.warn("Order rejected by the stock trigger: {}", e.getMessage());
             throw new OutOfStockException("Not enough books in stock");
         }
 
-        return OrderDto.from(order);
+        // Stock of the ordered books was changed by the reservation (or the order item trigger)
+        quantities.keySet()
+                .forEach(bookId -> eventPublisher.publishEvent(BookChangedEvent.statsChanged(bookId)));
+        eventPublisher.publishEvent(new OrderPlacedEvent(orderId, quantities));
+
+        return OrderDto.from(order, customer.getUsername(), paymentDate, itemDtos);
+    }
+
+    private static boolean isRaisedByTrigger(DataAccessException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException
+                && RAISE_EXCEPTION_SQL_STATE.equals(sqlException.getSQLState());
+    }
+
+    // Any shortage rolls the whole order back, including the lines that were reserved
+    private void reserveStock(Map<Integer, Integer> quantities) {
+        List<StockLine> lines = quantities.entrySet().stream()
+                .map(entry -> new StockLine(entry.getKey(), entry.getValue()))
+                .toList();
+
+        boolean[] reserved = inventoryRepository.reserve(lines);
+        List<StockLine> missing = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (!reserved[i]) {
+                missing.add(lines.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> stock = inventoryRepository.findStock(missing.stream().map(StockLine::bookId).toList());
+        List<OutOfStockException.Shortage> shortages = missing.stream()
+                .map(line -> new OutOfStockException.Shortage(
+                        line.bookId(), line.quantity(), stock.getOrDefault(line.bookId(), 0)))
+                .toList();
+        throw new OutOfStockException("Not enough books in stock", shortages);
     }
 
     @Override
@@ -122,13 +229,57 @@ public class OrderServiceImpl implements OrderService {
         orderRepository.deleteById(id);
     }
 
+    // Only the customer's newest orders; the history pages with findHistory
     @Override
     public List<OrderDto> findAllByCustomerId(int customerId) {
-        return orderRepository.findAllByCustomer_Id(customerId).stream().map(OrderDto::from).toList();
+        return withItems(orderRepository.findAllRowsByCustomerId(customerId, Limit.of(Paging.MAX_PAGE_SIZE)));
+    }
+
+    @Override
+    public OrdersResponse findAll(OrderFilter filter, String cursor, int pageSize) {
+        List<OrderRow> rows = orderRepository.findRows(filter, KeysetCursor.decodePosition(cursor),
+                Paging.keysetLimit(pageSize));
+        return PageResponseFormatter.createOrdersKeysetResponse(pageSize, rows, this::withItems);
+    }
+
+    @Override
+    public OrdersResponse findHistory(int customerId, int pageNo, int pageSize) {
+        Page<OrderRow> ordersPage = orderRepository.findRowsByCustomerId(customerId,
+                Paging.pageRequest(pageNo, pageSize));
+        return PageResponseFormatter.createOrdersPageResponse(pageNo, pageSize, ordersPage,
+                withItems(ordersPage.getContent()));
+    }
+
+    @Override
+    public OrderSummariesResponse findHistorySummary(int customerId, int pageNo, int pageSize) {
+        Page<OrderSummaryDto> summariesPage = orderRepository
+                .findSummariesByCustomerId(customerId, Paging.pageRequest(pageNo, pageSize))
+                .map(OrderSummaryDto::from);
+        return PageResponseFormatter.createOrderSummariesPageResponse(pageNo, pageSize, summariesPage);
+    }
+
+    // Attaches the items of all the orders with one projection query, instead of loading them order by order
+    private List<OrderDto> withItems(List<OrderRow> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> orderIds = orders.stream().map(OrderRow::getId).toList();
+        Map<Integer, List<OrderItemDto>> items = orderItemRepository.findRowsByOrderIds(orderIds).stream()
+                .collect(Collectors.groupingBy(OrderItemRow::getOrderId,
+                        Collectors.mapping(OrderItemDto::from, Collectors.toList())));
+        return orders.stream()
+                .map(order -> OrderDto.from(order, items.getOrDefault(order.getId(), List.of())))
+                .toList();
     }
 
     @Override
-    public void generateOrders(int ordersCount) {
-        OrderGenerator.generateOrders(ordersCount, orderRepository, bookRepository, customerRepository);
+    public GenerationJobDto generateOrders(GenerationSettings settings) {
+        return generationJobService.submit("orders", settings, progress -> {
+            try {
+                return orderGenerator.generateOrders(settings, progress);
+            } finally {
+                eventPublisher.publishEvent(new BookStatsChangedEvent("orders generated"));
+            }
+        });
     }
 }
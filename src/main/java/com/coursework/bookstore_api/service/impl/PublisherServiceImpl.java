@@ -1,11 +1,20 @@
 package com.coursework.bookstore_api.service.impl;
 
+import com.coursework.bookstore_api.constants.CacheNames;
 import com.coursework.bookstore_api.dto.PublisherDto;
+import com.coursework.bookstore_api.event.ChangeType;
+import com.coursework.bookstore_api.event.ReferenceDataChangedEvent;
+import com.coursework.bookstore_api.event.ReferenceType;
 import com.coursework.bookstore_api.exceptions.PublisherNotFoundException;
 import com.coursework.bookstore_api.model.Publisher;
 import com.coursework.bookstore_api.repository.PublisherRepository;
 import com.coursework.bookstore_api.service.PublisherService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,13 +24,16 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class PublisherServiceImpl implements PublisherService {
     private final PublisherRepository publisherRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Cacheable(cacheNames = CacheNames.PUBLISHERS, key = "'" + CacheNames.ALL + "'")
     public List<PublisherDto> findAll() {
         return publisherRepository.findAll().stream().map(PublisherDto::from).toList();
     }
 
     @Override
+    @Cacheable(cacheNames = CacheNames.PUBLISHER, key = "#id")
     public PublisherDto findById(int id) {
         return PublisherDto.from(Objects.requireNonNull(publisherRepository
                 .findById(id)
@@ -29,23 +41,40 @@ public class PublisherServiceImpl implements PublisherService {
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.PUBLISHER, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = CacheNames.PUBLISHERS, allEntries = true)
+    )
     public PublisherDto save(PublisherDto publisherDto) {
         Publisher publisher = PublisherDto.toPublisher(publisherDto);
-        return PublisherDto.from(publisherRepository.save(publisher));
+        PublisherDto savedPublisher = PublisherDto.from(publisherRepository.save(publisher));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.PUBLISHER, savedPublisher.getId(), ChangeType.CREATED));
+        return savedPublisher;
     }
 
     @Override
+    @Caching(
+            put = @CachePut(cacheNames = CacheNames.PUBLISHER, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheNames.PUBLISHERS, allEntries = true)
+    )
     public PublisherDto update(int id, PublisherDto publisherDto) {
         Publisher existingPublisher = publisherRepository.findById(id)
                 .orElseThrow(() -> new PublisherNotFoundException("Publisher not found"));
 
         existingPublisher.setPublisherName(publisherDto.getPublisherName());
 
-        return PublisherDto.from(publisherRepository.save(existingPublisher));
+        PublisherDto updatedPublisher = PublisherDto.from(publisherRepository.save(existingPublisher));
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.PUBLISHER, id, ChangeType.UPDATED));
+        return updatedPublisher;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheNames.PUBLISHER, key = "#id"),
+            @CacheEvict(cacheNames = CacheNames.PUBLISHERS, allEntries = true)
+    })
     public void deleteById(int id) {
         publisherRepository.deleteById(id);
+        eventPublisher.publishEvent(new ReferenceDataChangedEvent(ReferenceType.PUBLISHER, id, ChangeType.DELETED));
     }
 }
@@ -1,18 +1,35 @@
 package com.coursework.bookstore_api.service.impl;
 
+import com.coursework.bookstore_api.dto.GenerationJobDto;
 import com.coursework.bookstore_api.dto.ReviewDto;
+import com.coursework.bookstore_api.dto.response.ReviewsResponse;
+import com.coursework.bookstore_api.event.BookChangedEvent;
+import com.coursework.bookstore_api.event.BookStatsChangedEvent;
+import com.coursework.bookstore_api.event.ChangeType;
+import com.coursework.bookstore_api.event.ReviewChangedEvent;
 import com.coursework.bookstore_api.exceptions.BookNotFoundException;
 import com.coursework.bookstore_api.exceptions.CustomerNotFoundException;
+import com.coursework.bookstore_api.exceptions.InvalidReviewException;
 import com.coursework.bookstore_api.exceptions.ReviewNotFoundException;
 import com.coursework.bookstore_api.model.Customer;
 import com.coursework.bookstore_api.model.Review;
+import com.coursework.bookstore_api.repository.BookRatingRepository;
 import com.coursework.bookstore_api.repository.BookRepository;
 import com.coursework.bookstore_api.repository.CustomerRepository;
 import com.coursework.bookstore_api.repository.ReviewRepository;
+import com.coursework.bookstore_api.repository.projection.ReviewRow;
+import com.coursework.bookstore_api.service.GenerationJobService;
 import com.coursework.bookstore_api.service.ReviewService;
+import com.coursework.bookstore_api.util.KeysetCursor;
+import com.coursework.bookstore_api.util.PageResponseFormatter;
+import com.coursework.bookstore_api.util.Paging;
+import com.coursework.bookstore_api.util.datageneration.GenerationSettings;
 import com.coursework.bookstore_api.util.datageneration.ReviewGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Objects;
@@ -23,6 +40,10 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final CustomerRepository customerRepository;
     private final BookRepository bookRepository;
+    private final BookRatingRepository bookRatingRepository;
+    private final ReviewGenerator reviewGenerator;
+    private final GenerationJobService generationJobService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ReviewDto> findAll() {
@@ -36,8 +57,25 @@ public class ReviewServiceImpl implements ReviewService {
                 .orElseThrow(() -> new ReviewNotFoundException("Review not found"))));
     }
 
+    // Newest first: the cursor holds the id of the last review of the previous page
     @Override
+    public ReviewsResponse findByBookId(int bookId, String cursor, int pageSize) {
+        int beforeId = cursor == null || cursor.isEmpty() ? Integer.MAX_VALUE : KeysetCursor.decode(cursor);
+        List<ReviewRow> rows = reviewRepository.findPageByBookId(bookId, beforeId,
+                Limit.of(Paging.keysetLimit(pageSize)));
+        if (rows.isEmpty() && !bookRepository.existsById(bookId)) {
+            throw new BookNotFoundException("Book not found");
+        }
+        return PageResponseFormatter.createReviewsKeysetResponse(pageSize, rows);
+    }
+
+    @Override
+    @Transactional
     public ReviewDto save(ReviewDto reviewDto) {
+        if (reviewDto.getRating() == null) {
+            throw new InvalidReviewException("A review needs a rating");
+        }
+        validateRating(reviewDto.getRating());
         Review review = ReviewDto.toReview(reviewDto);
 
         review.setReviewer(customerRepository.findById(reviewDto.getReviewerId())
@@ -45,16 +83,35 @@ public class ReviewServiceImpl implements ReviewService {
         review.setBook(bookRepository.findById(reviewDto.getBookId())
                 .orElseThrow(() -> new BookNotFoundException("Book not found")));
 
-        return ReviewDto.from(reviewRepository.save(review));
+        Review savedReview = reviewRepository.save(review);
+        bookRatingRepository.apply(new BookRatingRepository.Delta(savedReview.getBook().getId())
+                .addReview(savedReview.getRating()));
+        eventPublisher.publishEvent(BookChangedEvent.statsChanged(savedReview.getBook().getId()));
+        eventPublisher.publishEvent(new ReviewChangedEvent(
+                savedReview.getId(), savedReview.getBook().getId(), ChangeType.CREATED));
+        return ReviewDto.from(savedReview);
     }
 
     @Override
+    @Transactional
     public ReviewDto update(int id, ReviewDto reviewDto) {
-        Review existingReview = reviewRepository.findById(id)
+        Review existingReview = reviewRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ReviewNotFoundException("Review not found"));
 
         existingReview.setText(reviewDto.getText());
 
+        // Without a rating the review keeps its current one
+        Integer rating = reviewDto.getRating();
+        if (rating != null && !rating.equals(existingReview.getRating())) {
+            validateRating(rating);
+            int bookId = existingReview.getBook().getId();
+            bookRatingRepository.apply(new BookRatingRepository.Delta(bookId)
+                    .removeRating(existingReview.getRating())
+                    .addRating(rating));
+            existingReview.setRating(rating);
+            eventPublisher.publishEvent(BookChangedEvent.statsChanged(bookId));
+        }
+
         if (existingReview.getReviewer().getId() != reviewDto.getReviewerId()) {
             Customer reviewer = customerRepository.findById(reviewDto.getReviewerId())
                     .orElseThrow(() -> new CustomerNotFoundException("Customer not found"));
@@ -65,12 +122,33 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     @Override
+    @Transactional
     public void deleteById(int id) {
-        reviewRepository.deleteById(id);
+        reviewRepository.findByIdForUpdate(id).ifPresent(review -> {
+            reviewRepository.delete(review);
+            bookRatingRepository.apply(new BookRatingRepository.Delta(review.getBook().getId())
+                    .removeReview(review.getRating()));
+            eventPublisher.publishEvent(BookChangedEvent.statsChanged(review.getBook().getId()));
+            eventPublisher.publishEvent(new ReviewChangedEvent(
+                    review.getId(), review.getBook().getId(), ChangeType.DELETED));
+        });
+    }
+
+    private static void validateRating(int rating) {
+        if (rating < BookRatingRepository.MIN_RATING || rating > BookRatingRepository.MAX_RATING) {
+            throw new InvalidReviewException("Rating must be between " + BookRatingRepository.MIN_RATING
+                    + " and " + BookRatingRepository.MAX_RATING);
+        }
     }
 
     @Override
-    public void generateReviews(int reviewsCount) {
-        ReviewGenerator.generateReviews(reviewsCount, reviewRepository, bookRepository, customerRepository);
+    public GenerationJobDto generateReviews(GenerationSettings settings) {
+        return generationJobService.submit("reviews", settings, progress -> {
+            try {
+                return reviewGenerator.generateReviews(settings, progress);
+            } finally {
+                eventPublisher.publishEvent(new BookStatsChangedEvent("reviews generated"));
+            }
+        });
     }
 }
@@ -0,0 +1,48 @@
+package com.coursework.bookstore_api.util;
+
+import com.coursework.bookstore_api.dto.BookDto;
+import com.coursework.bookstore_api.dto.BookRatingDto;
+import com.coursework.bookstore_api.model.Book;
+import com.coursework.bookstore_api.model.BookRating;
+import com.coursework.bookstore_api.repository.BookRatingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read path for book listings. Publisher and language come with the page query through an entity graph,
+ * authors and genres are batch-fetched (see {@link Book}) and ratings are read from book_rating with one query
+ * for the whole page, so building a page of {@link BookDto} costs a fixed number of statements.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookDtoAssembler {
+    private final BookRatingRepository bookRatingRepository;
+
+    public BookDto toDto(Book book) {
+        return toDtos(List.of(book)).getFirst();
+    }
+
+    public List<BookDto> toDtos(List<Book> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> bookIds = books.stream().map(Book::getId).toList();
+        Map<Integer, BookRating> ratings = bookRatingRepository.findByBookIds(bookIds).stream()
+                .collect(Collectors.toMap(BookRating::getBookId, Function.identity()));
+
+        return books.stream()
+                .map(book -> {
+                    BookDto dto = BookDto.from(book);
+                    BookRating rating = ratings.get(book.getId());
+                    dto.setRating(rating == null ? BookRatingDto.empty() : BookRatingDto.from(rating));
+                    return dto;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,25 @@
+package com.coursework.bookstore_api.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+@UtilityClass
+public class ConditionalResponses {
+
+    /**
+     * Answers 304 Not Modified when the request's If-None-Match matches the tag, without computing the body;
+     * otherwise returns the body with the tag as a strong ETag. {@code no-cache} makes clients revalidate the
+     * tag on every use instead of guessing a freshness lifetime.
+     */
+    public static <T> ResponseEntity<T> withETag(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body.get());
+    }
+}
@@ -2,38 +2,35 @@ package com.coursework.bookstore_api.util;
 
 import lombok.experimental.UtilityClass;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 
 @UtilityClass
 public class CsvFileWriter {
-    public static Path writeTableContentsToCsvFile(final String tableName, final ResultSet rs) throws IOException, SQLException {
-        Path tempFile = Files.createTempFile(tableName, ".csv");
-        try (BufferedWriter writer = Files.newBufferedWriter(tempFile)) {
-            ResultSetMetaData meta = rs.getMetaData();
-            for (int i = 1; i <= meta.getColumnCount(); i++) {
-                if (i > 1) writer.write(",");
-                writer.write(meta.getColumnName(i));
-            }
-            writer.newLine();
+    public static void writeTableContents(final ResultSet rs, final Writer writer) throws IOException, SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            if (i > 1) writer.write(",");
+            writer.write(meta.getColumnName(i));
+        }
+        writer.write(System.lineSeparator());
+        // Send the header right away, so the client starts receiving the file before the table is read
+        writer.flush();
 
-            while (rs.next()) {
-                for (int i = 1; i <= meta.getColumnCount(); i++) {
-                    if (i > 1) {
-                        writer.write(",");
-                    }
-                    String value = rs.getString(i);
-                    writer.write(escapeCsvValue(value));
+        while (rs.next()) {
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                if (i > 1) {
+                    writer.write(",");
                 }
-                writer.newLine();
+                String value = rs.getString(i);
+                writer.write(escapeCsvValue(value));
             }
+            writer.write(System.lineSeparator());
         }
-        return tempFile;
+        writer.flush();
     }
 
     private static String escapeCsvValue(final String value) {
@@ -50,4 +47,4 @@ public class CsvFileWriter {
         }
         return value;
     }
-}
\ No newline at end of file
+}
@@ -1,52 +1,50 @@
-//package com.coursework.bookstore_api.util;
-//
-//import ch.qos.logback.classic.spi.ILoggingEvent;
-//import ch.qos.logback.core.AppenderBase;
-//import com.coursework.bookstore_api.model.LogLevel;
-//import com.coursework.bookstore_api.service.DatabaseLoggerService;
-//import org.springframework.beans.BeansException;
-//import org.springframework.context.ApplicationContext;
-//import org.springframework.context.ApplicationContextAware;
-//import org.springframework.stereotype.Component;
-//
-//@Component
-//public class DatabaseServiceAppender extends AppenderBase<ILoggingEvent> implements ApplicationContextAware {
-//
-//    private ApplicationContext applicationContext;
-//    private DatabaseLoggerService databaseLoggerService;
-//
-//    // Required no-argument constructor
-//    public DatabaseServiceAppender() {
-//    }
-//
-//    @Override
-//    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
-//        this.applicationContext = applicationContext;
-//    }
-//
-//    @Override
-//    protected void append(ILoggingEvent eventObject) {
-//        if (databaseLoggerService == null && applicationContext != null) {
-//            try {
-//                databaseLoggerService = applicationContext.getBean(DatabaseLoggerService.class);
-//            } catch (BeansException e) {
-//                addError("Error retrieving DatabaseLoggerService bean: " + e.getMessage(), e);
-//                return; // Don't proceed if bean retrieval fails
-//            }
-//        }
-//
-//        if (databaseLoggerService != null) {
-//            try {
-//                databaseLoggerService.saveLog(
-//                        LogLevel.valueOf(eventObject.getLevel().toString()),
-//                        eventObject.getLoggerName(),
-//                        eventObject.getFormattedMessage()
-//                );
-//            } catch (Exception e) {
-//                addError("Failed to log to database", e);
-//            }
-//        } else {
-//            addWarn("DatabaseLoggerService not yet initialized. Skipping log.");
-//        }
-//    }
-//}
\ No newline at end of file
+package com.coursework.bookstore_api.util;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.coursework.bookstore_api.model.LogLevel;
+import com.coursework.bookstore_api.util.logging.DatabaseLogSink;
+import com.coursework.bookstore_api.util.logging.LogEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Logback appender feeding the asynchronous {@link DatabaseLogSink}. Appending only enqueues the event, so it
+ * never puts a DB round trip on the logging thread. Events of the sink's own flusher thread are skipped so
+ * that JDBC logging can't feed back into the buffer.
+ */
+public class DatabaseServiceAppender extends AppenderBase<ILoggingEvent> {
+
+    private final DatabaseLogSink databaseLogSink;
+    private final String loggerPrefix;
+
+    public DatabaseServiceAppender(DatabaseLogSink databaseLogSink, String loggerPrefix) {
+        this.databaseLogSink = databaseLogSink;
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    @Override
+    protected void append(ILoggingEvent eventObject) {
+        if (databaseLogSink.isFlusherThread() || !eventObject.getLoggerName().startsWith(loggerPrefix)) {
+            return;
+        }
+        databaseLogSink.offer(new LogEvent(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(eventObject.getTimeStamp()), ZoneId.systemDefault()),
+                toLogLevel(eventObject.getLevel()),
+                eventObject.getLoggerName(),
+                eventObject.getFormattedMessage()
+        ));
+    }
+
+    private static LogLevel toLogLevel(Level level) {
+        return switch (level.toInt()) {
+            case Level.ERROR_INT -> LogLevel.ERROR;
+            case Level.WARN_INT -> LogLevel.WARNING;
+            case Level.INFO_INT -> LogLevel.INFO;
+            default -> LogLevel.DEBUG;
+        };
+    }
+}
@@ -3,26 +3,47 @@ package com.coursework.bookstore_api.util;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Path;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 
 @Component
 public class DatabaseTableSerializer {
+    private static final int FETCH_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
     private final DataSource dataSource;
 
     public DatabaseTableSerializer(DataSource dataSource) {
         this.dataSource = dataSource;
     }
 
-    public Path writeDbTableToCsvFile(String tableName) throws SQLException {
-        Connection connection = dataSource.getConnection();
-        String query = "SELECT * FROM " + tableName + ";";
-        try (PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            ResultSet rs = statement.executeQuery();
-            Path tempFile = CsvFileWriter.writeTableContentsToCsvFile(tableName, rs);
-            connection.close();
-            return tempFile;
+    /**
+     * Streams the whole table as CSV into the given stream. The rows are read through a server-side cursor
+     * ({@link #FETCH_SIZE} rows per round trip), so memory use does not depend on the table size.
+     * The stream is flushed but not closed.
+     */
+    public void writeDbTableToCsv(String tableName, OutputStream outputStream) {
+        String query = "SELECT * FROM " + tableName;
+        try (Connection connection = dataSource.getConnection()) {
+            // The PostgreSQL driver only honours the fetch size inside a transaction
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(query,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                statement.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = statement.executeQuery()) {
+                    Writer writer = new BufferedWriter(
+                            new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+                    CsvFileWriter.writeTableContents(rs, writer);
+                }
+            } finally {
+                connection.rollback();
+            }
         } catch (SQLException | IOException e) {
             throw new RuntimeException(e);
         }
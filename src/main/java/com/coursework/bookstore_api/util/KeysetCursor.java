@@ -0,0 +1,86 @@
+package com.coursework.bookstore_api.util;
+
+import com.coursework.bookstore_api.exceptions.InvalidCursorException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque continuation tokens for keyset (seek) pagination. A token wraps the primary key
+ * of the last row of the previous page, or for listings sorted by time its timestamp and primary key;
+ * clients must treat it as an opaque string.
+ */
+@UtilityClass
+public class KeysetCursor {
+    private static final String PREFIX = "id:";
+    private static final String TIME_PREFIX = "at:";
+
+    /**
+     * Position after a row of a listing ordered by a timestamp (at microsecond precision, as stored by
+     * PostgreSQL) and then by primary key. The time is null for a row without a timestamp.
+     */
+    public record Position(Instant time, int id) {
+    }
+
+    public static String encode(int lastId) {
+        byte[] bytes = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // A null time is encoded as an empty one
+    public static String encode(Date time, int lastId) {
+        String micros = "";
+        if (time != null) {
+            Instant instant = time instanceof Timestamp timestamp ? timestamp.toInstant() : time.toInstant();
+            micros = Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, instant));
+        }
+        byte[] bytes = (TIME_PREFIX + micros + ":" + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * @return the position to continue after, or null for the first page
+     */
+    public static Position decodePosition(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.startsWith(TIME_PREFIX)
+                    ? value.substring(TIME_PREFIX.length()).split(":", -1)
+                    : null;
+            if (parts == null || parts.length != 2) {
+                throw new InvalidCursorException("Invalid page cursor: " + cursor);
+            }
+            Instant time = parts[0].isEmpty()
+                    ? null
+                    : Instant.EPOCH.plus(Long.parseLong(parts[0]), ChronoUnit.MICROS);
+            return new Position(time, Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new InvalidCursorException("Invalid page cursor: " + cursor);
+        }
+    }
+
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid page cursor: " + cursor);
+            }
+            return Integer.parseInt(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor: " + cursor);
+        }
+    }
+}
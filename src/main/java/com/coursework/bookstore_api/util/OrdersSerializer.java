@@ -1,24 +1,76 @@
 package com.coursework.bookstore_api.util;
 
 import com.coursework.bookstore_api.dto.OrderDto;
+import com.coursework.bookstore_api.dto.OrderItemDto;
+import com.coursework.bookstore_api.repository.OrderItemRepository;
+import com.coursework.bookstore_api.repository.OrderRepository;
+import com.coursework.bookstore_api.repository.projection.OrderItemRow;
+import com.coursework.bookstore_api.repository.projection.OrderRow;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.experimental.UtilityClass;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-@UtilityClass
+/**
+ * Writes every order as JSON straight into an output stream. Orders are walked in chunks ordered by
+ * payment_id (keyset), each chunk costs two projection queries and is released before the next one is read,
+ * so memory use does not depend on the number of orders.
+ */
+@Component
+@RequiredArgsConstructor
 public class OrdersSerializer {
-    public static Path downloadJsonFile(List<OrderDto> orders) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        try {
-            Path tempFile = Files.createTempFile("orders-", ".json");
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(tempFile.toFile(), orders);
-            return tempFile;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create or write to the JSON file", e);
+    private static final int CHUNK_SIZE = 1000;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param ndjson write one order per line instead of a single JSON array
+     */
+    public void writeOrders(OutputStream outputStream, boolean ndjson) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        if (!ndjson) {
+            generator.writeStartArray();
+        }
+
+        int lastId = 0;
+        List<OrderRow> orders;
+        do {
+            orders = orderRepository.findRowsAfter(lastId, PageRequest.of(0, CHUNK_SIZE));
+            if (orders.isEmpty()) {
+                break;
+            }
+
+            List<Integer> orderIds = orders.stream().map(OrderRow::getId).toList();
+            Map<Integer, List<OrderItemDto>> items = orderItemRepository.findRowsByOrderIds(orderIds).stream()
+                    .collect(Collectors.groupingBy(OrderItemRow::getOrderId,
+                            Collectors.mapping(OrderItemDto::from, Collectors.toList())));
+
+            for (OrderRow order : orders) {
+                generator.writeObject(OrderDto.from(order, items.getOrDefault(order.getId(), List.of())));
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+            generator.flush();
+
+            lastId = orders.get(orders.size() - 1).getId();
+        } while (orders.size() == CHUNK_SIZE);
+
+        if (!ndjson) {
+            generator.writeEndArray();
         }
+        generator.close();
     }
 }
@@ -2,20 +2,29 @@ package com.coursework.bookstore_api.util;
 
 import com.coursework.bookstore_api.dto.AuthorDto;
 import com.coursework.bookstore_api.dto.BookDto;
+import com.coursework.bookstore_api.dto.OrderDto;
+import com.coursework.bookstore_api.dto.OrderSummaryDto;
+import com.coursework.bookstore_api.dto.ReviewDto;
 import com.coursework.bookstore_api.dto.response.AuthorsResponse;
 import com.coursework.bookstore_api.dto.response.BooksResponse;
+import com.coursework.bookstore_api.dto.response.OrderSummariesResponse;
+import com.coursework.bookstore_api.dto.response.OrdersResponse;
+import com.coursework.bookstore_api.dto.response.ReviewsResponse;
 import com.coursework.bookstore_api.model.Author;
 import com.coursework.bookstore_api.model.Book;
+import com.coursework.bookstore_api.repository.projection.OrderRow;
+import com.coursework.bookstore_api.repository.projection.ReviewRow;
 import lombok.experimental.UtilityClass;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.function.Function;
 
 @UtilityClass
 public class PageResponseFormatter {
-    public static BooksResponse createBooksPageResponse(int pageNo, int pageSize, Page<Book> booksPage) {
-        List<Book> books = booksPage.getContent();
-        List<BookDto> content = books.stream().map(BookDto::from).toList();
+    public static BooksResponse createBooksPageResponse(int pageNo, int pageSize, Page<Book> booksPage,
+                                                       Function<List<Book>, List<BookDto>> toDtos) {
+        List<BookDto> content = toDtos.apply(booksPage.getContent());
 
         BooksResponse booksResponse = new BooksResponse();
         booksResponse.setContent(content);
@@ -42,4 +51,102 @@ public class PageResponseFormatter {
 
         return authorsResponse;
     }
+
+    public static OrdersResponse createOrdersPageResponse(int pageNo, int pageSize, Page<?> ordersPage,
+                                                         List<OrderDto> content) {
+        OrdersResponse ordersResponse = new OrdersResponse();
+        ordersResponse.setContent(content);
+        ordersResponse.setPageNo(pageNo);
+        ordersResponse.setPageSize(pageSize);
+        ordersResponse.setTotalElements(ordersPage.getTotalElements());
+        ordersResponse.setTotalPages(ordersPage.getTotalPages());
+        ordersResponse.setLast(ordersPage.isLast());
+
+        return ordersResponse;
+    }
+
+    public static OrderSummariesResponse createOrderSummariesPageResponse(int pageNo, int pageSize,
+                                                                         Page<OrderSummaryDto> summariesPage) {
+        OrderSummariesResponse summariesResponse = new OrderSummariesResponse();
+        summariesResponse.setContent(summariesPage.getContent());
+        summariesResponse.setPageNo(pageNo);
+        summariesResponse.setPageSize(pageSize);
+        summariesResponse.setTotalElements(summariesPage.getTotalElements());
+        summariesResponse.setTotalPages(summariesPage.getTotalPages());
+        summariesResponse.setLast(summariesPage.isLast());
+
+        return summariesResponse;
+    }
+
+    // Keyset pages are fetched with one extra row to detect the last page without a COUNT query,
+    // so the totals are unknown and reported as -1.
+    public static BooksResponse createBooksKeysetResponse(int pageSize, List<Book> rows,
+                                                         Function<List<Book>, List<BookDto>> toDtos) {
+        KeysetPage<Book> page = KeysetPage.of(pageSize, rows, book -> KeysetCursor.encode(book.getId()));
+
+        BooksResponse booksResponse = new BooksResponse();
+        booksResponse.setContent(toDtos.apply(page.rows()));
+        booksResponse.setPageSize(pageSize);
+        booksResponse.setTotalElements(-1);
+        booksResponse.setTotalPages(-1);
+        booksResponse.setLast(page.last());
+        booksResponse.setNextCursor(page.nextCursor());
+
+        return booksResponse;
+    }
+
+    public static OrdersResponse createOrdersKeysetResponse(int pageSize, List<OrderRow> rows,
+                                                           Function<List<OrderRow>, List<OrderDto>> toDtos) {
+        KeysetPage<OrderRow> page = KeysetPage.of(pageSize, rows,
+                order -> KeysetCursor.encode(order.getPaymentDate(), order.getId()));
+
+        OrdersResponse ordersResponse = new OrdersResponse();
+        ordersResponse.setContent(toDtos.apply(page.rows()));
+        ordersResponse.setPageSize(pageSize);
+        ordersResponse.setTotalElements(-1);
+        ordersResponse.setTotalPages(-1);
+        ordersResponse.setLast(page.last());
+        ordersResponse.setNextCursor(page.nextCursor());
+
+        return ordersResponse;
+    }
+
+    public static AuthorsResponse createAuthorsKeysetResponse(int pageSize, List<Author> rows) {
+        KeysetPage<Author> page = KeysetPage.of(pageSize, rows, author -> KeysetCursor.encode(author.getId()));
+
+        AuthorsResponse authorsResponse = new AuthorsResponse();
+        authorsResponse.setContent(page.rows().stream().map(AuthorDto::from).toList());
+        authorsResponse.setPageSize(pageSize);
+        authorsResponse.setTotalElements(-1);
+        authorsResponse.setTotalPages(-1);
+        authorsResponse.setLast(page.last());
+        authorsResponse.setNextCursor(page.nextCursor());
+
+        return authorsResponse;
+    }
+
+    public static ReviewsResponse createReviewsKeysetResponse(int pageSize, List<ReviewRow> rows) {
+        KeysetPage<ReviewRow> page = KeysetPage.of(pageSize, rows, review -> KeysetCursor.encode(review.getId()));
+
+        ReviewsResponse reviewsResponse = new ReviewsResponse();
+        reviewsResponse.setContent(page.rows().stream().map(ReviewDto::from).toList());
+        reviewsResponse.setPageSize(pageSize);
+        reviewsResponse.setTotalElements(-1);
+        reviewsResponse.setTotalPages(-1);
+        reviewsResponse.setLast(page.last());
+        reviewsResponse.setNextCursor(page.nextCursor());
+
+        return reviewsResponse;
+    }
+
+    // The rows of a keyset page, without the extra row, and the cursor after its last row (null on the last page)
+    private record KeysetPage<T>(List<T> rows, boolean last, String nextCursor) {
+        static <T> KeysetPage<T> of(int pageSize, List<T> fetched, Function<T, String> cursorOf) {
+            if (fetched.size() <= pageSize) {
+                return new KeysetPage<>(fetched, true, null);
+            }
+            List<T> rows = fetched.subList(0, pageSize);
+            return new KeysetPage<>(rows, false, cursorOf.apply(rows.get(rows.size() - 1)));
+        }
+    }
 }
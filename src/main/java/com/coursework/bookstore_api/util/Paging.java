@@ -0,0 +1,51 @@
+package com.coursework.bookstore_api.util;
+
+import com.coursework.bookstore_api.exceptions.InvalidPageRequestException;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Checks the paging parameters of the listings, so that a bad page number or size is answered with a 400
+ * instead of failing in the query.
+ */
+@UtilityClass
+public class Paging {
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    public static PageRequest pageRequest(int pageNo, int pageSize) {
+        return pageRequest(pageNo, pageSize, Sort.unsorted());
+    }
+
+    public static PageRequest pageRequest(int pageNo, int pageSize, Sort sort) {
+        if (pageNo < 0) {
+            throw new InvalidPageRequestException("pageNo must not be negative");
+        }
+        checkPageSize(pageSize);
+        return PageRequest.of(pageNo, pageSize, sort);
+    }
+
+    /**
+     * @return the rows to fetch for a keyset page: one more than the page size, to detect the last page
+     */
+    public static int keysetLimit(int pageSize) {
+        checkPageSize(pageSize);
+        return pageSize + 1;
+    }
+
+    /**
+     * @return the limit of a top-N listing, checked against the same bounds as a page size
+     */
+    public static int limit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.coursework.bookstore_api.util.datageneration;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * A data generation run submitted to the background executor. State changes happen on the executor thread,
+ * reads come from the status endpoints, so every mutable field is volatile.
+ */
+@Getter
+public class GenerationJob implements Runnable {
+    private final String id;
+    private final String type;
+    private final GenerationSettings settings;
+    private final GenerationProgress progress;
+    private final Instant createdAt = Instant.now();
+    private final Function<GenerationProgress, GenerationReport> task;
+
+    private volatile GenerationJobStatus status = GenerationJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile GenerationReport report;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public GenerationJob(String id, String type, GenerationSettings settings,
+                         Function<GenerationProgress, GenerationReport> task) {
+        this.id = id;
+        this.type = type;
+        this.settings = settings;
+        this.progress = new GenerationProgress(type, settings.count());
+        this.task = task;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    @Override
+    public void run() {
+        if (progress.isCancelled()) {
+            finish(GenerationJobStatus.CANCELLED);
+            return;
+        }
+        startedAt = Instant.now();
+        status = GenerationJobStatus.RUNNING;
+        progress.start();
+        try {
+            report = task.apply(progress);
+            finish(progress.isCancelled() ? GenerationJobStatus.CANCELLED : GenerationJobStatus.COMPLETED);
+        } catch (Throwable e) {
+            // also Errors such as OutOfMemoryError, which would otherwise leave the job RUNNING forever
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            report = progress.report();
+            finish(GenerationJobStatus.FAILED);
+            if (e instanceof Error fatal) {
+                throw fatal;
+            }
+        }
+    }
+
+    /**
+     * Asks the job to stop. A queued job never starts; a running one stops before its next batch.
+     */
+    public void cancel() {
+        progress.cancel();
+        Future<?> submitted = future;
+        if (status == GenerationJobStatus.QUEUED && submitted != null && submitted.cancel(false)) {
+            finish(GenerationJobStatus.CANCELLED);
+        }
+    }
+
+    private void finish(GenerationJobStatus finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+}
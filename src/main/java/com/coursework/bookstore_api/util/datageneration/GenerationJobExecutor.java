@@ -0,0 +1,46 @@
+package com.coursework.bookstore_api.util.datageneration;
+
+import com.coursework.bookstore_api.exceptions.GenerationJobRejectedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor for generation jobs: a fixed number of jobs run at once and a limited number wait
+ * in the queue, anything beyond that is rejected instead of piling up.
+ */
+@Component
+public class GenerationJobExecutor {
+    private final ThreadPoolExecutor executor;
+
+    public GenerationJobExecutor(@Value("${generation.jobs.concurrency:2}") int concurrency,
+                                 @Value("${generation.jobs.queue-capacity:10}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "generation-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public void submit(GenerationJob job) {
+        try {
+            job.setFuture(executor.submit(job));
+        } catch (RejectedExecutionException e) {
+            throw new GenerationJobRejectedException("Too many generation jobs are running or queued, try again later");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
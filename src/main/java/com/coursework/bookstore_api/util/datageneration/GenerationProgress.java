@@ -0,0 +1,73 @@
+package com.coursework.bookstore_api.util.datageneration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe row counter shared by the workers of one generation run. Logs progress and throughput
+ * roughly every tenth of the run, and carries the cancellation flag the workers check between batches.
+ */
+public class GenerationProgress {
+    private static final Logger logger = LoggerFactory.getLogger(GenerationProgress.class);
+
+    private final String name;
+    private final long total;
+    private final long logEvery;
+    private volatile long startNanos = System.nanoTime();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong nextLogAt;
+    private volatile boolean cancelled;
+
+    public GenerationProgress(String name, long total) {
+        this.name = name;
+        this.total = total;
+        this.logEvery = Math.max(total / 10, 1);
+        this.nextLogAt = new AtomicLong(logEvery);
+    }
+
+    public void add(int generatedRows) {
+        long done = rows.addAndGet(generatedRows);
+        long threshold = nextLogAt.get();
+        if (done >= threshold && nextLogAt.compareAndSet(threshold, threshold + logEvery)) {
+            logger.info("Generated {}/{} {} ({} rows/sec)", done, total, name, Math.round(rowsPerSecond()));
+        }
+    }
+
+    /**
+     * Restarts the throughput clock, for runs that were queued before they started writing.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public long millis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public long rows() {
+        return rows.get();
+    }
+
+    public double rowsPerSecond() {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        return seconds > 0 ? rows.get() / seconds : 0;
+    }
+
+    public GenerationReport report() {
+        return new GenerationReport(rows.get(), millis(), rowsPerSecond());
+    }
+}
@@ -0,0 +1,4 @@
+package com.coursework.bookstore_api.util.datageneration;
+
+public record GenerationReport(long rows, long millis, double rowsPerSecond) {
+}
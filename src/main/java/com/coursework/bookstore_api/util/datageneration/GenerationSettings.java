@@ -0,0 +1,19 @@
+package com.coursework.bookstore_api.util.datageneration;
+
+import com.coursework.bookstore_api.exceptions.InvalidGenerationSettingsException;
+
+/**
+ * @param count   number of rows to generate
+ * @param seed    makes a run reproducible (for the same count and workers); random when null
+ * @param workers number of parallel workers, each one writing in its own transactions
+ */
+public record GenerationSettings(int count, Long seed, int workers) {
+    public GenerationSettings {
+        if (count < 0) {
+            throw new InvalidGenerationSettingsException("Count must not be negative");
+        }
+        if (workers < 1) {
+            throw new InvalidGenerationSettingsException("At least one worker is required");
+        }
+    }
+}
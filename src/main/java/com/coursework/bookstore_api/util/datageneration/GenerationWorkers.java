@@ -0,0 +1,67 @@
+package com.coursework.bookstore_api.util.datageneration;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+@UtilityClass
+public class GenerationWorkers {
+
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(int rows, RandomGenerator random);
+    }
+
+    /**
+     * Splits the requested rows between the workers. Every worker writes its share in batches of
+     * {@code batchSize} rows, one transaction per batch, with its own random generator
+     * (seeded from the run seed and the worker index when a seed is given). Workers stop before their next
+     * batch once the progress is cancelled; batches that were already committed are kept.
+     */
+    public static GenerationReport run(GenerationSettings settings, GenerationProgress progress, int batchSize,
+                                       TransactionTemplate transactionTemplate, BatchWriter writer) {
+        ExecutorService executor = Executors.newFixedThreadPool(settings.workers());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < settings.workers(); worker++) {
+                int workerIndex = worker;
+                int workerRows = settings.count() / settings.workers()
+                        + (worker < settings.count() % settings.workers() ? 1 : 0);
+
+                futures.add(executor.submit(() -> {
+                    RandomGenerator random = settings.seed() == null
+                            ? ThreadLocalRandom.current()
+                            : new SplittableRandom(settings.seed() * 31 + workerIndex);
+                    int remaining = workerRows;
+                    while (remaining > 0 && !progress.isCancelled()) {
+                        int rows = Math.min(batchSize, remaining);
+                        transactionTemplate.executeWithoutResult(status -> writer.write(rows, random));
+                        progress.add(rows);
+                        remaining -= rows;
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data generation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return progress.report();
+    }
+}
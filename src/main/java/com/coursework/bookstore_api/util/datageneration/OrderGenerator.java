@@ -1,79 +1,101 @@
 package com.coursework.bookstore_api.util.datageneration;
 
-import com.coursework.bookstore_api.exceptions.BookNotFoundException;
-import com.coursework.bookstore_api.exceptions.CustomerNotFoundException;
-import com.coursework.bookstore_api.model.Book;
-import com.coursework.bookstore_api.model.Customer;
-import com.coursework.bookstore_api.model.Order;
-import com.coursework.bookstore_api.model.OrderItem;
-import com.coursework.bookstore_api.repository.BookRepository;
-import com.coursework.bookstore_api.repository.CustomerRepository;
-import com.coursework.bookstore_api.repository.OrderRepository;
+import com.coursework.bookstore_api.repository.OrderBatchRepository;
+import com.coursework.bookstore_api.repository.OrderBatchRepository.NewOrder;
+import com.coursework.bookstore_api.repository.OrderBatchRepository.NewOrderItem;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
+@Component
+@RequiredArgsConstructor
 public class OrderGenerator {
-    private static final Random random = new Random();
-    
     // Maximum number of items per order
     private static final int MAX_ITEMS_PER_ORDER = 5;
     // Maximum quantity per item
     private static final int MAX_QUANTITY_PER_ITEM = 2;
+    // Orders written per JDBC batch / transaction
+    private static final int BATCH_SIZE = 1000;
+    // Generated payment dates are spread over this period before now
+    private static final long PAYMENT_DATE_SPREAD_SECONDS = Duration.ofDays(365).toSeconds();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderBatchRepository orderBatchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public GenerationReport generateOrders(GenerationSettings settings) {
+        return generateOrders(settings, new GenerationProgress("orders", settings.count()));
+    }
+
+    public GenerationReport generateOrders(GenerationSettings settings, GenerationProgress progress) {
+        int[] customerIds = jdbcTemplate.queryForList("SELECT customer_id FROM customer ORDER BY customer_id", Integer.class)
+                .stream().mapToInt(Integer::intValue).toArray();
+        List<Integer> bookIdList = new ArrayList<>();
+        List<Double> bookPriceList = new ArrayList<>();
+        jdbcTemplate.query("SELECT book_id, price FROM book ORDER BY book_id", rs -> {
+            bookIdList.add(rs.getInt(1));
+            bookPriceList.add(rs.getDouble(2));
+        });
+        int[] bookIds = bookIdList.stream().mapToInt(Integer::intValue).toArray();
+        double[] bookPrices = bookPriceList.stream().mapToDouble(Double::doubleValue).toArray();
+
+        if (customerIds.length == 0 || bookIds.length == 0) {
+            throw new IllegalStateException("Orders can only be generated when there are customers and books in the database");
+        }
+
+        Instant now = Instant.now();
+        return GenerationWorkers.run(settings, progress, BATCH_SIZE, transactionTemplate,
+                (rows, random) -> writeOrders(rows, random, now, customerIds, bookIds, bookPrices));
+    }
+
+    private void writeOrders(int orderCount, RandomGenerator random, Instant now,
+                             int[] customerIds, int[] bookIds, double[] bookPrices) {
+        int[] orderIds = orderBatchRepository.nextOrderIds(orderCount);
+        List<NewOrder> orders = new ArrayList<>(orderCount);
+
+        int maxItems = orderCount * MAX_ITEMS_PER_ORDER;
+        int[] itemOrderIds = new int[maxItems];
+        int[] itemBooks = new int[maxItems];
+        int[] itemQuantities = new int[maxItems];
+        int itemCount = 0;
 
-    public static void generateOrders(
-            int orderCount,
-            OrderRepository orderRepository,
-            BookRepository bookRepository,
-            CustomerRepository customerRepository) {
-        
-        List<Integer> bookIds = bookRepository.findAll().stream().map(Book::getId).toList();
-        List<Integer> customerIds = customerRepository.findAll().stream().map(Customer::getId).toList();
-        
         for (int i = 0; i < orderCount; i++) {
-            int customerId = customerIds.get(random.nextInt(customerIds.size()));
-            
-            // Create a new order
-            Order order = new Order();
-            order.setPaymentDate(new Date());
-            order.setCustomer(customerRepository.findById(customerId)
-                    .orElseThrow(() ->
-                            new CustomerNotFoundException(">" + customerId + "< customer not found in the database.")));
-            
-            // Generate a random number of items for this order (1 to MAX_ITEMS_PER_ORDER)
-            int itemCount = random.nextInt(MAX_ITEMS_PER_ORDER) + 1;
-            List<OrderItem> orderItems = new ArrayList<>();
+            int orderItems = random.nextInt(MAX_ITEMS_PER_ORDER) + 1;
             double totalAmount = 0.0;
-            
-            // Create random order items
-            for (int j = 0; j < itemCount; j++) {
-                int bookId = bookIds.get(random.nextInt(bookIds.size()));
-                Book book = bookRepository.findById(bookId)
-                        .orElseThrow(() ->
-                                new BookNotFoundException(">" + bookId + "< book not found in the database."));
-                
-                // Create an order item
-                OrderItem orderItem = new OrderItem();
-                orderItem.setBook(book);
-                orderItem.setOrder(order);
-                
-                // Random quantity between 1 and MAX_QUANTITY_PER_ITEM
+
+            for (int j = 0; j < orderItems; j++) {
+                int book = random.nextInt(bookIds.length);
                 int quantity = random.nextInt(MAX_QUANTITY_PER_ITEM) + 1;
-                orderItem.setQuantity(quantity);
-                orderItem.setPrice(book.getPrice());
-                
-                orderItems.add(orderItem);
-                totalAmount += book.getPrice() * quantity;
+
+                itemOrderIds[itemCount] = orderIds[i];
+                itemBooks[itemCount] = book;
+                itemQuantities[itemCount] = quantity;
+                itemCount++;
+
+                totalAmount += bookPrices[book] * quantity;
             }
-            
-            // Set order items and total amount
-            order.setOrderItems(orderItems);
-            order.setAmount(totalAmount);
-            
-            // Save the order
-            orderRepository.save(order);
+
+            int customerId = customerIds[random.nextInt(customerIds.length)];
+            Instant paymentDate = now.minusSeconds(random.nextLong(PAYMENT_DATE_SPREAD_SECONDS));
+            orders.add(new NewOrder(orderIds[i], customerId, totalAmount, Timestamp.from(paymentDate), orderItems));
+        }
+
+        int[] itemIds = orderBatchRepository.nextOrderItemIds(itemCount);
+        List<NewOrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            int book = itemBooks[i];
+            items.add(new NewOrderItem(itemIds[i], itemOrderIds[i], bookIds[book], itemQuantities[i], bookPrices[book]));
         }
+
+        orderBatchRepository.insertOrders(orders);
+        orderBatchRepository.insertOrderItems(items);
     }
-}
\ No newline at end of file
+}
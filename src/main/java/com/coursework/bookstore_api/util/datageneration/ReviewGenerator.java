@@ -1,17 +1,19 @@
 package com.coursework.bookstore_api.util.datageneration;
 
-import com.coursework.bookstore_api.exceptions.BookNotFoundException;
-import com.coursework.bookstore_api.exceptions.CustomerNotFoundException;
-import com.coursework.bookstore_api.model.Book;
-import com.coursework.bookstore_api.model.Customer;
-import com.coursework.bookstore_api.model.Review;
-import com.coursework.bookstore_api.repository.BookRepository;
-import com.coursework.bookstore_api.repository.CustomerRepository;
-import com.coursework.bookstore_api.repository.ReviewRepository;
+import com.coursework.bookstore_api.repository.BookRatingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
 
+@Component
+@RequiredArgsConstructor
 public class ReviewGenerator {
     private static final String[] reviewPhrases = {
             "Amazing book!", "Really enjoyed the plot.", "Characters were well developed.",
@@ -19,31 +21,57 @@ public class ReviewGenerator {
             "Didn't meet my expectations.", "Loved the writing style.",
             "Would read again.", "Not my cup of tea.", "Five stars!"
     };
-    private static final Random random = new Random();
+    // Reviews written per JDBC batch / transaction
+    private static final int BATCH_SIZE = 1000;
 
-    public static void generateReviews(
-            int reviewCount,
-            ReviewRepository reviewRepository,
-            BookRepository bookRepository,
-            CustomerRepository customerRepository) {
-        List<Integer> bookIds = bookRepository.findAll().stream().map(Book::getId).toList();
-        List<Integer> customerIds = customerRepository.findAll().stream().map(Customer::getId).toList();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookRatingRepository bookRatingRepository;
 
+    private record NewReview(String text, int rating, int customerId, int bookId) {
+    }
+
+    public GenerationReport generateReviews(GenerationSettings settings) {
+        return generateReviews(settings, new GenerationProgress("reviews", settings.count()));
+    }
+
+    public GenerationReport generateReviews(GenerationSettings settings, GenerationProgress progress) {
+        int[] bookIds = jdbcTemplate.queryForList("SELECT book_id FROM book ORDER BY book_id", Integer.class)
+                .stream().mapToInt(Integer::intValue).toArray();
+        int[] customerIds = jdbcTemplate.queryForList("SELECT customer_id FROM customer ORDER BY customer_id", Integer.class)
+                .stream().mapToInt(Integer::intValue).toArray();
+
+        if (customerIds.length == 0 || bookIds.length == 0) {
+            throw new IllegalStateException("Reviews can only be generated when there are customers and books in the database");
+        }
+
+        return GenerationWorkers.run(settings, progress, BATCH_SIZE, transactionTemplate,
+                (rows, random) -> writeReviews(rows, random, bookIds, customerIds));
+    }
+
+    private void writeReviews(int reviewCount, RandomGenerator random, int[] bookIds, int[] customerIds) {
+        List<NewReview> reviews = new ArrayList<>(reviewCount);
         for (int i = 0; i < reviewCount; i++) {
-            int bookId = bookIds.get(random.nextInt(bookIds.size()));
-            int customerId = customerIds.get(random.nextInt(customerIds.size()));
+            int bookId = bookIds[random.nextInt(bookIds.length)];
+            int customerId = customerIds[random.nextInt(customerIds.length)];
             String reviewText = reviewPhrases[random.nextInt(reviewPhrases.length)];
+            int rating = random.nextInt(BookRatingRepository.MIN_RATING, BookRatingRepository.MAX_RATING + 1);
+            reviews.add(new NewReview(reviewText, rating, customerId, bookId));
+        }
 
-            Review review = new Review();
-            review.setBook(bookRepository.findById(bookId)
-                    .orElseThrow(() ->
-                            new BookNotFoundException(">" + bookId + "< book not found in the database.")));
-            review.setReviewer(customerRepository.findById(customerId)
-                    .orElseThrow(() ->
-                            new CustomerNotFoundException(">" + customerId + "< customer not found in the database.")));
-            review.setText(reviewText);
+        jdbcTemplate.batchUpdate("INSERT INTO review (review_text, rating, customer_id, book_id) VALUES (?, ?, ?, ?)",
+                reviews, reviews.size(), (ps, review) -> {
+                    ps.setString(1, review.text());
+                    ps.setInt(2, review.rating());
+                    ps.setInt(3, review.customerId());
+                    ps.setInt(4, review.bookId());
+                });
 
-            reviewRepository.save(review);
+        // One delta per book in book id order, in the same transaction as the reviews
+        Map<Integer, BookRatingRepository.Delta> deltas = new TreeMap<>();
+        for (NewReview review : reviews) {
+            deltas.computeIfAbsent(review.bookId(), BookRatingRepository.Delta::new).addReview(review.rating());
         }
+        bookRatingRepository.applyAll(new ArrayList<>(deltas.values()));
     }
 }
@@ -0,0 +1,189 @@
+package com.coursework.bookstore_api.util.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous sink for the {@code log} table. Producers put events into a bounded lock-free ring buffer and
+ * return immediately; a single background thread drains it and batch-inserts the events once a full batch is
+ * queued or the flush interval has passed, whichever comes first.
+ */
+@Component
+public class DatabaseLogSink {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseLogSink.class);
+
+    private static final String INSERT_LOG = "INSERT INTO log (timestamp, level, logger_name, message) VALUES (?, ?, ?, ?)";
+    // Matches the default varchar(255) columns of the log table
+    private static final int MAX_COLUMN_LENGTH = 255;
+    // How long a blocked producer sleeps between attempts to enqueue
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LogRingBuffer<LogEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final LogOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final Counter enqueuedCounter;
+    private final Counter droppedCounter;
+    private final Counter flushedCounter;
+    private final Counter flushFailureCounter;
+    private final Timer flushTimer;
+
+    private final Thread flusher = new Thread(this::flushLoop, "db-log-flusher");
+    private volatile boolean running = true;
+
+    public DatabaseLogSink(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                           @Value("${logging.db.capacity:8192}") int capacity,
+                           @Value("${logging.db.batch-size:500}") int batchSize,
+                           @Value("${logging.db.flush-interval-ms:1000}") long flushIntervalMs,
+                           @Value("${logging.db.overflow-policy:DROP}") LogOverflowPolicy overflowPolicy,
+                           @Value("${logging.db.block-timeout-ms:50}") long blockTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new LogRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+
+        Gauge.builder("bookstore.logs.db.queued", buffer, LogRingBuffer::size)
+                .description("Log events waiting to be written to the DB")
+                .register(meterRegistry);
+        this.enqueuedCounter = Counter.builder("bookstore.logs.db.enqueued")
+                .description("Log events accepted into the buffer")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("bookstore.logs.db.dropped")
+                .description("Log events dropped because the buffer was full or the insert failed")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("bookstore.logs.db.flushed")
+                .description("Log events written to the DB")
+                .register(meterRegistry);
+        this.flushFailureCounter = Counter.builder("bookstore.logs.db.flush.failures")
+                .description("Batch inserts into the log table that failed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("bookstore.logs.db.flush")
+                .description("Time spent batch-inserting log events")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues an event without touching the DB. Returns false when the event was dropped.
+     */
+    public boolean offer(LogEvent event) {
+        if (buffer.offer(event)) {
+            onEnqueued();
+            return true;
+        }
+        if (overflowPolicy == LogOverflowPolicy.BLOCK && !isFlusherThread()) {
+            LockSupport.unpark(flusher);
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                if (buffer.offer(event)) {
+                    onEnqueued();
+                    return true;
+                }
+            }
+        }
+        droppedCounter.increment();
+        return false;
+    }
+
+    public boolean isFlusherThread() {
+        return Thread.currentThread() == flusher;
+    }
+
+    private void onEnqueued() {
+        enqueuedCounter.increment();
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    private void flushLoop() {
+        List<LogEvent> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        while (running) {
+            drainInto(batch);
+            long now = System.nanoTime();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - lastFlush >= flushIntervalNanos)) {
+                flush(batch);
+                lastFlush = now;
+                continue;
+            }
+            if (batch.isEmpty()) {
+                // nothing pending, so the interval starts again from now
+                lastFlush = now;
+            }
+            LockSupport.parkNanos(this, flushIntervalNanos - (now - lastFlush));
+        }
+
+        drainInto(batch);
+        while (!batch.isEmpty()) {
+            flush(batch);
+            drainInto(batch);
+        }
+    }
+
+    private void drainInto(List<LogEvent> batch) {
+        LogEvent event;
+        while (batch.size() < batchSize && (event = buffer.poll()) != null) {
+            batch.add(event);
+        }
+    }
+
+    private void flush(List<LogEvent> batch) {
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_LOG, batch, batch.size(), (ps, event) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(event.timestamp()));
+                ps.setString(2, event.level().name());
+                ps.setString(3, truncate(event.loggerName()));
+                ps.setString(4, truncate(event.message()));
+            }));
+            flushedCounter.increment(batch.size());
+        } catch (DataAccessException e) {
+            flushFailureCounter.increment();
+            droppedCounter.increment(batch.size());
+            logger.warn("Failed to write {} log events to the DB: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= MAX_COLUMN_LENGTH ? value : value.substring(0, MAX_COLUMN_LENGTH);
+    }
+
+    /**
+     * Stops the flusher after writing whatever is still queued.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
@@ -0,0 +1,8 @@
+package com.coursework.bookstore_api.util.logging;
+
+import com.coursework.bookstore_api.model.LogLevel;
+
+import java.time.LocalDateTime;
+
+public record LogEvent(LocalDateTime timestamp, LogLevel level, String loggerName, String message) {
+}
@@ -0,0 +1,11 @@
+package com.coursework.bookstore_api.util.logging;
+
+/**
+ * What a producer does when the log buffer is full.
+ */
+public enum LogOverflowPolicy {
+    // Drop the event right away, the caller never waits
+    DROP,
+    // Wait for the flusher to free space, up to the configured timeout, then drop
+    BLOCK
+}
@@ -0,0 +1,118 @@
+package com.coursework.bookstore_api.bookimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvBookImportReaderTests {
+    private static final String HEADER =
+            "title,isbn,authors,genres,publisher,language,price,number_in_stock,image_url\n";
+
+    @Test
+    void readsQuotedValuesWithSeparatorsQuotesAndNewlines() throws IOException {
+        String csv = HEADER
+                + "\"Dune, Part One\",978-0,\"Frank \"\"F.\"\" Herbert\",Sci-Fi|Classic,Ace,English,9.99,3,\n"
+                + "\"Line one\r\nline two\",,,,Ace,English,1.50,,\"\"\n";
+
+        try (CsvBookImportReader reader = reader(csv)) {
+            BookImportRow first = reader.next();
+            assertThat(first.rowNumber()).isEqualTo(1);
+            assertThat(first.title()).isEqualTo("Dune, Part One");
+            assertThat(first.isbn()).isEqualTo("978-0");
+            assertThat(first.authors()).containsExactly("Frank \"F.\" Herbert");
+            assertThat(first.genres()).containsExactly("Sci-Fi", "Classic");
+            assertThat(first.price()).isEqualTo(9.99);
+            assertThat(first.numberInStock()).isEqualTo(3);
+            assertThat(first.imageUrl()).isNull();
+
+            BookImportRow second = reader.next();
+            assertThat(second.rowNumber()).isEqualTo(2);
+            assertThat(second.title()).isEqualTo("Line one\r\nline two");
+            assertThat(second.isbn()).isNull();
+            assertThat(second.authors()).isEmpty();
+            assertThat(second.numberInStock()).isZero();
+
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void matchesColumnsByNormalizedNameAndSkipsBlankLines() throws IOException {
+        String csv = "\uFEFFPrice,Unknown,Number_In_Stock,TITLE,Publisher,Language\r\n"
+                + "\r\n"
+                + "12,ignored,7,Emma,Penguin,English\r\n"
+                + "\n";
+
+        try (CsvBookImportReader reader = reader(csv)) {
+            BookImportRow row = reader.next();
+            assertThat(row.title()).isEqualTo("Emma");
+            assertThat(row.price()).isEqualTo(12);
+            assertThat(row.numberInStock()).isEqualTo(7);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void reportsARowWithTheWrongNumberOfValuesAndGoesOn() throws IOException {
+        String csv = HEADER
+                + "Too,few,values\n"
+                + "Emma,,,,Penguin,English,12,,\n";
+
+        try (CsvBookImportReader reader = reader(csv)) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(InvalidImportRowException.class)
+                    .hasMessage("expected 9 values but found 3")
+                    .extracting(e -> ((InvalidImportRowException) e).getRowNumber())
+                    .isEqualTo(1L);
+            BookImportRow row = reader.next();
+            assertThat(row.rowNumber()).isEqualTo(2);
+            assertThat(row.title()).isEqualTo("Emma");
+        }
+    }
+
+    @Test
+    void reportsAnInvalidValueAsARowError() throws IOException {
+        try (CsvBookImportReader reader = reader(HEADER + "Emma,,,,Penguin,English,free,,\n")) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(InvalidImportRowException.class)
+                    .hasMessage("price is not a number: free");
+        }
+    }
+
+    @Test
+    void failsOnAnUnterminatedQuotedValue() throws IOException {
+        String csv = HEADER
+                + "Emma,,,,Penguin,English,12,,\n"
+                + "\"Broken,,,,Penguin,English,12,,\n";
+
+        try (CsvBookImportReader reader = reader(csv)) {
+            assertThat(reader.next().title()).isEqualTo("Emma");
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Unterminated quoted value after row 1");
+        }
+    }
+
+    @Test
+    void failsWithoutARequiredColumnOrHeader() throws IOException {
+        try (CsvBookImportReader reader = reader("title,price,publisher\nEmma,12,Penguin\n")) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("The CSV header has no language column");
+        }
+        try (CsvBookImportReader reader = reader("")) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("The CSV file is empty");
+        }
+    }
+
+    private static CsvBookImportReader reader(String csv) {
+        return new CsvBookImportReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,101 @@
+package com.coursework.bookstore_api.bookimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonBookImportReaderTests {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void readsAnArrayOfBooks() throws IOException {
+        String json = """
+                [
+                  {"title": "Dune", "isbn": "978-0", "authors": ["Frank Herbert"], "genres": ["Sci-Fi", "Classic"],
+                   "publisher": "Ace", "language": "English", "price": 9.99, "numberInStock": 3, "unknown": {}},
+                  {"title": "Emma", "authors": "Jane Austen", "publisher": "Penguin", "language": "English",
+                   "price": "12", "imageUrl": null}
+                ]
+                """;
+
+        try (JsonBookImportReader reader = reader(json)) {
+            BookImportRow first = reader.next();
+            assertThat(first.rowNumber()).isEqualTo(1);
+            assertThat(first.title()).isEqualTo("Dune");
+            assertThat(first.authors()).containsExactly("Frank Herbert");
+            assertThat(first.genres()).containsExactly("Sci-Fi", "Classic");
+            assertThat(first.price()).isEqualTo(9.99);
+            assertThat(first.numberInStock()).isEqualTo(3);
+
+            BookImportRow second = reader.next();
+            assertThat(second.rowNumber()).isEqualTo(2);
+            assertThat(second.isbn()).isNull();
+            assertThat(second.authors()).containsExactly("Jane Austen");
+            assertThat(second.price()).isEqualTo(12);
+            assertThat(second.imageUrl()).isNull();
+
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void reportsAnInvalidBookAndGoesOn() throws IOException {
+        String json = """
+                [
+                  {"title": "Dune", "publisher": "Ace", "language": "English", "price": {"amount": 9.99}},
+                  "not a book",
+                  {"title": "Emma", "publisher": "Penguin", "language": "English", "price": -1},
+                  {"title": "Persuasion", "publisher": "Penguin", "language": "English", "price": 8}
+                ]
+                """;
+
+        try (JsonBookImportReader reader = reader(json)) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(InvalidImportRowException.class)
+                    .hasMessage("price must be a single value");
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(InvalidImportRowException.class)
+                    .hasMessage("expected a book object");
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(InvalidImportRowException.class)
+                    .hasMessage("price must not be negative: -1")
+                    .extracting(e -> ((InvalidImportRowException) e).getRowNumber())
+                    .isEqualTo(3L);
+            assertThat(reader.next().title()).isEqualTo("Persuasion");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void returnsTheBooksBeforeAFileThatBreaksPartWay() throws IOException {
+        String json = """
+                [
+                  {"title": "Dune", "publisher": "Ace", "language": "English", "price": 9.99},
+                  {"title": "Emma", "publisher": "Pengu""";
+
+        try (JsonBookImportReader reader = reader(json)) {
+            assertThat(reader.next().title()).isEqualTo("Dune");
+            assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void failsWhenTheFileIsNotAnArray() throws IOException {
+        try (JsonBookImportReader reader = reader("{\"title\": \"Dune\"}")) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("The JSON file must contain an array of books");
+        }
+    }
+
+    private static JsonBookImportReader reader(String json) throws IOException {
+        return new JsonBookImportReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                OBJECT_MAPPER);
+    }
+}
@@ -0,0 +1,116 @@
+package com.coursework.bookstore_api.search;
+
+import com.coursework.bookstore_api.search.FrontCodedDictionary.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrontCodedDictionaryTests {
+
+    @Test
+    void scanWithoutPrefixDecodesEveryEntryAcrossBlocks() {
+        List<String> keys = IntStream.range(0, 50).mapToObj(i -> String.format("book %03d", i)).toList();
+        FrontCodedDictionary dictionary = build(keys);
+
+        assertThat(dictionary.size()).isEqualTo(50);
+        assertThat(scan(dictionary, "")).isEqualTo(entries(keys, 0));
+    }
+
+    @Test
+    void scanVisitsTheKeysWithThePrefixInOrder() {
+        List<String> keys = IntStream.range(0, 100).mapToObj(i -> String.format("k%03d", i)).toList();
+        FrontCodedDictionary dictionary = build(keys);
+
+        // k016 starts the second block, so the matches span two blocks
+        assertThat(scan(dictionary, "k01")).isEqualTo(entries(keys.subList(10, 20), 10));
+        assertThat(scan(dictionary, "k000")).containsExactly("k000=0");
+        assertThat(scan(dictionary, "k099")).containsExactly("k099=99");
+        assertThat(scan(dictionary, "k")).hasSize(100);
+    }
+
+    @Test
+    void scanFindsNothingOutsideTheKeys() {
+        FrontCodedDictionary dictionary = build(List.of("banana", "bandana", "band", "cherry"));
+
+        assertThat(scan(dictionary, "a")).isEmpty();
+        assertThat(scan(dictionary, "bananas")).isEmpty();
+        assertThat(scan(dictionary, "bb")).isEmpty();
+        assertThat(scan(dictionary, "d")).isEmpty();
+        assertThat(scan(dictionary, "ban")).containsExactly("banana=0", "band=1", "bandana=2");
+    }
+
+    @Test
+    void scanOfAnEmptyDictionaryVisitsNothing() {
+        assertThat(FrontCodedDictionary.EMPTY.size()).isZero();
+        assertThat(scan(FrontCodedDictionary.EMPTY, "")).isEmpty();
+        assertThat(scan(build(List.of()), "a")).isEmpty();
+    }
+
+    @Test
+    void scanStopsWhenTheVisitorSaysSo() {
+        FrontCodedDictionary dictionary = build(IntStream.range(0, 40)
+                .mapToObj(i -> "title " + (char) ('a' + i))
+                .toList());
+        List<Integer> visited = new ArrayList<>();
+
+        dictionary.scanPrefix(bytes("title"), (key, length, value) -> {
+            visited.add(value);
+            return visited.size() < 3;
+        });
+
+        assertThat(visited).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void keysAreOrderedAsUnsignedUtf8Bytes() {
+        FrontCodedDictionary dictionary = build(List.of("zola", "émile", "eco", "émilie"));
+
+        assertThat(scan(dictionary, "")).containsExactly("eco=0", "zola=1", "émile=2", "émilie=3");
+        assertThat(scan(dictionary, "émil")).containsExactly("émile=2", "émilie=3");
+    }
+
+    @Test
+    void keepsKeysOfTheMaximumLength() {
+        String longest = "a".repeat(FrontCodedDictionary.MAX_KEY_BYTES - 1);
+        FrontCodedDictionary dictionary = build(List.of(longest + "a", longest + "b", "b".repeat(255), ""));
+
+        assertThat(scan(dictionary, longest + "b")).containsExactly(longest + "b=2");
+        assertThat(scan(dictionary, longest)).containsExactly(longest + "a=1", longest + "b=2");
+        assertThat(scan(dictionary, "b")).containsExactly("b".repeat(255) + "=3");
+        assertThat(scan(dictionary, "")).hasSize(4).startsWith("=0");
+    }
+
+    // Each key maps to its position in byte order
+    private static FrontCodedDictionary build(List<String> keys) {
+        List<byte[]> sorted = keys.stream()
+                .map(FrontCodedDictionaryTests::bytes)
+                .sorted(Arrays::compareUnsigned)
+                .toList();
+        return FrontCodedDictionary.build(IntStream.range(0, sorted.size())
+                .mapToObj(i -> new Entry(sorted.get(i), i))
+                .toList());
+    }
+
+    private static List<String> scan(FrontCodedDictionary dictionary, String prefix) {
+        List<String> visited = new ArrayList<>();
+        dictionary.scanPrefix(bytes(prefix), (key, length, value) -> {
+            visited.add(new String(key, 0, length, StandardCharsets.UTF_8) + "=" + value);
+            return true;
+        });
+        return visited;
+    }
+
+    private static List<String> entries(List<String> keys, int firstValue) {
+        return IntStream.range(0, keys.size()).mapToObj(i -> keys.get(i) + "=" + (firstValue + i)).toList();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
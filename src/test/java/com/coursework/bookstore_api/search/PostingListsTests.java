@@ -0,0 +1,97 @@
+package com.coursework.bookstore_api.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListsTests {
+
+    @Test
+    void unionMergesListsPairwise() {
+        int[] only = {4, 8};
+
+        assertThat(PostingLists.union(List.of())).isEmpty();
+        assertThat(PostingLists.union(List.of(only))).isSameAs(only);
+        assertThat(PostingLists.union(List.of(new int[]{1, 3, 5}, new int[]{2, 3, 6}, PostingLists.EMPTY)))
+                .containsExactly(1, 2, 3, 5, 6);
+        assertThat(PostingLists.union(new int[]{7, 9}, new int[]{1, 2})).containsExactly(1, 2, 7, 9);
+    }
+
+    @Test
+    void unionOfManyListsSortsAllIdsOnce() {
+        List<int[]> lists = new ArrayList<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 1; i <= 20; i++) {
+            int step = i;
+            int[] list = IntStream.iterate(step * 3, id -> id < 200, id -> id + step).toArray();
+            lists.add(list);
+            IntStream.of(list).forEach(expected::add);
+        }
+        lists.add(PostingLists.EMPTY);
+
+        assertThat(PostingLists.union(lists)).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Test
+    void intersectMergesListsOfSimilarSize() {
+        int[] a = {1, 2, 3, 4, 5};
+        int[] b = {2, 4, 6};
+
+        assertThat(PostingLists.intersect(a, b)).containsExactly(2, 4);
+        assertThat(PostingLists.intersect(b, a)).containsExactly(2, 4);
+        assertThat(PostingLists.intersect(a, new int[]{6, 7})).isEmpty();
+        assertThat(PostingLists.intersect(a, PostingLists.EMPTY)).isEmpty();
+    }
+
+    @Test
+    void intersectLooksUpAMuchSmallerList() {
+        int[] large = IntStream.range(0, 2000).map(id -> id * 2).toArray();
+        int[] small = {-1, 0, 51, 52, 3998, 5000};
+
+        assertThat(PostingLists.intersect(small, large)).containsExactly(0, 52, 3998);
+        assertThat(PostingLists.intersect(large, small)).containsExactly(0, 52, 3998);
+    }
+
+    @Test
+    void accumulateAddsTheWeightToContainedCandidates() {
+        int[] candidates = {1, 5, 9};
+        double[] scores = {0.5, 0, 0};
+
+        PostingLists.accumulate(candidates, scores, new int[]{5, 9, 10}, 2);
+        assertThat(scores).containsExactly(0.5, 2, 2);
+
+        int[] large = IntStream.range(0, 1000).toArray();
+        int[] few = {3, 700, 5000};
+        double[] fewScores = new double[few.length];
+        PostingLists.accumulate(few, fewScores, large, 1.5);
+        assertThat(fewScores).containsExactly(1.5, 1.5, 0);
+    }
+
+    @Test
+    void insertKeepsTheListSorted() {
+        int[] list = {2, 4};
+
+        assertThat(PostingLists.insert(PostingLists.EMPTY, 3)).containsExactly(3);
+        assertThat(PostingLists.insert(list, 1)).containsExactly(1, 2, 4);
+        assertThat(PostingLists.insert(list, 3)).containsExactly(2, 3, 4);
+        assertThat(PostingLists.insert(list, 5)).containsExactly(2, 4, 5);
+        assertThat(PostingLists.insert(list, 4)).isSameAs(list);
+    }
+
+    @Test
+    void removeDropsOnlyThatId() {
+        int[] list = {2, 4, 6};
+
+        assertThat(PostingLists.remove(list, 2)).containsExactly(4, 6);
+        assertThat(PostingLists.remove(list, 4)).containsExactly(2, 6);
+        assertThat(PostingLists.remove(list, 6)).containsExactly(2, 4);
+        assertThat(PostingLists.remove(list, 5)).isSameAs(list);
+        assertThat(PostingLists.remove(new int[]{7}, 7)).isEmpty();
+        assertThat(PostingLists.remove(PostingLists.EMPTY, 7)).isSameAs(PostingLists.EMPTY);
+    }
+}
@@ -0,0 +1,30 @@
+package com.coursework.bookstore_api.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTokenizerTests {
+
+    @Test
+    void lowerCasesAndRemovesDiacritics() {
+        assertThat(SearchTokenizer.tokenize("Karel Čapek")).containsExactly("karel", "capek");
+        assertThat(SearchTokenizer.tokenize("ÉMILE Zola")).containsExactly("emile", "zola");
+        assertThat(SearchTokenizer.tokenize("ﬁnal")).containsExactly("final");
+    }
+
+    @Test
+    void splitsOnAnythingButLettersAndDigits() {
+        assertThat(SearchTokenizer.tokenize("--Harry Potter & the Half-Blood Prince (2005)!"))
+                .containsExactly("harry", "potter", "the", "half", "blood", "prince", "2005");
+        assertThat(SearchTokenizer.tokenize("C3PO's 2nd\tedition")).containsExactly("c3po", "s", "2nd", "edition");
+    }
+
+    @Test
+    void producesNoTokensWithoutLettersOrDigits() {
+        assertThat(SearchTokenizer.tokenize(null)).isEmpty();
+        assertThat(SearchTokenizer.tokenize("")).isEmpty();
+        assertThat(SearchTokenizer.tokenize(" \t ")).isEmpty();
+        assertThat(SearchTokenizer.tokenize("&-!")).isEmpty();
+    }
+}
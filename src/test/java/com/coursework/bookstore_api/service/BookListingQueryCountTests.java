@@ -0,0 +1,137 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.model.*;
+import com.coursework.bookstore_api.search.BookSearchIndex;
+import com.coursework.bookstore_api.search.BookSearchIndex.SearchResult;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookListingQueryCountTests {
+    // page query (with publisher and language) + count query + authors batch + genres batch. The ratings are read
+    // with one JdbcTemplate query, which Hibernate does not count.
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+    private static final String TITLE_QUERY = "Statistics test book";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // The index only holds committed books, so each test decides which path the title filter takes
+    @MockitoBean
+    private BookSearchIndex bookSearchIndex;
+
+    private final List<Integer> bookIds = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Language language = new Language();
+        language.setLanguage("Statistics test language");
+        entityManager.persist(language);
+
+        Publisher publisher = new Publisher();
+        publisher.setPublisherName("Statistics test publisher");
+        entityManager.persist(publisher);
+
+        Customer reviewer = Customer.builder()
+                .username("statistics-test-reviewer")
+                .email("statistics-test-reviewer@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+        entityManager.persist(reviewer);
+
+        for (int i = 0; i < 60; i++) {
+            Author author = new Author();
+            author.setName("Statistics test author " + i);
+            Genre genre = new Genre();
+            genre.setGenreName("Statistics test genre " + i);
+
+            Book book = Book.builder()
+                    .title("Statistics test book " + i)
+                    .price(10 + i)
+                    .numberInStock(5)
+                    .language(language)
+                    .publisher(publisher)
+                    .authors(new ArrayList<>(List.of(author)))
+                    .genres(new ArrayList<>(List.of(genre)))
+                    .build();
+            entityManager.persist(book);
+            bookIds.add(book.getId());
+
+            Review review = new Review();
+            review.setText("Statistics test review " + i);
+            review.setReviewer(reviewer);
+            review.setBook(book);
+            entityManager.persist(review);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bookPageIsBuiltInBoundedNumberOfStatements() {
+        long smallPageStatements = countStatements(() -> bookService.findAll(0, 10));
+        long largePageStatements = countStatements(() -> bookService.findAll(0, 50));
+
+        assertThat(smallPageStatements).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+    }
+
+    @Test
+    void filteredBookPageFromTheLikeQueryIsBuiltInBoundedNumberOfStatements() {
+        // An index that is still loading, so the title is matched with LIKE
+        when(bookSearchIndex.search(eq(TITLE_QUERY), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Optional.empty());
+
+        long statements = countStatements(() -> bookService.getFilteredBooks(TITLE_QUERY, null, null, null, 0, 50));
+
+        assertThat(statements).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void filteredBookPageFromTheSearchIndexIsBuiltInBoundedNumberOfStatements() {
+        when(bookSearchIndex.search(eq(TITLE_QUERY), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(Optional.of(new SearchResult(bookIds.subList(0, 50), bookIds.size())));
+
+        long statements = countStatements(() -> bookService.getFilteredBooks(TITLE_QUERY, null, null, null, 0, 50));
+
+        // books by id + authors batch + genres batch, no count query
+        assertThat(statements).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE - 1);
+    }
+
+    private long countStatements(Runnable listing) {
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
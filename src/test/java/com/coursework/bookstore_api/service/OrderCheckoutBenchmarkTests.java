@@ -0,0 +1,150 @@
+package com.coursework.bookstore_api.service;
+
+import com.coursework.bookstore_api.dto.OrderDto;
+import com.coursework.bookstore_api.dto.OrderItemDto;
+import com.coursework.bookstore_api.model.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout throughput for large B2B orders. Run with {@code mvn test -Dbenchmark=true -Dtest=OrderCheckoutBenchmarkTests}.
+ * Each order commits, so the after-commit listeners (search indexes, caches, leaderboards) are part of the measurement;
+ * the fixtures and orders are deleted afterwards. The sales rollup refresh is kept out of the test context, so that
+ * it never folds in the deleted orders. The stock is reserved in the app, which the final stock check relies on.
+ */
+@SpringBootTest(properties = {"analytics.refresh.interval=PT24H", "orders.stock.reserve-in-app=true"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderCheckoutBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(OrderCheckoutBenchmarkTests.class);
+
+    private static final int LINES_PER_ORDER = 200;
+    private static final int WARMUP_ORDERS = 20;
+    private static final int MEASURED_ORDERS = 100;
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Integer> bookIds = new ArrayList<>();
+    // Unique per run, so that the rows of an interrupted run don't clash with this one
+    private final String customerName = "checkout-benchmark-" + System.currentTimeMillis();
+    private Language language;
+    private Publisher publisher;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> createFixtures());
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (customer != null) {
+                jdbcTemplate.update("DELETE FROM order_item WHERE payment_id IN "
+                        + "(SELECT payment_id FROM payment WHERE customer_id = ?)", customer.getId());
+                jdbcTemplate.update("DELETE FROM payment WHERE customer_id = ?", customer.getId());
+                jdbcTemplate.update("DELETE FROM customer WHERE customer_id = ?", customer.getId());
+            }
+            if (publisher != null) {
+                jdbcTemplate.update("DELETE FROM book WHERE publisher_id = ?", publisher.getId());
+                jdbcTemplate.update("DELETE FROM publisher WHERE publisher_id = ?", publisher.getId());
+            }
+            if (language != null) {
+                jdbcTemplate.update("DELETE FROM language WHERE language_id = ?", language.getId());
+            }
+        });
+    }
+
+    private void createFixtures() {
+        language = new Language();
+        language.setLanguage("Benchmark language");
+        entityManager.persist(language);
+
+        publisher = new Publisher();
+        publisher.setPublisherName("Benchmark publisher");
+        entityManager.persist(publisher);
+
+        customer = Customer.builder()
+                .username(customerName)
+                .email(customerName + "@example.com")
+                .password("password")
+                .role(Role.ROLE_USER)
+                .build();
+        entityManager.persist(customer);
+
+        for (int i = 0; i < LINES_PER_ORDER; i++) {
+            Book book = Book.builder()
+                    .title("Benchmark book " + i)
+                    .price(10 + i)
+                    .numberInStock(INITIAL_STOCK)
+                    .language(language)
+                    .publisher(publisher)
+                    .authors(new ArrayList<>())
+                    .genres(new ArrayList<>())
+                    .build();
+            entityManager.persist(book);
+            bookIds.add(book.getId());
+        }
+
+    }
+
+    @Test
+    void checkoutThroughput() {
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            orderService.save(largeOrder());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            OrderDto order = orderService.save(largeOrder());
+            assertThat(order.getOrderItems()).hasSize(LINES_PER_ORDER);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long lines = (long) MEASURED_ORDERS * LINES_PER_ORDER;
+        logger.info("Checkout: {} orders of {} lines in {} s, {} orders/s, {} lines/s",
+                MEASURED_ORDERS, LINES_PER_ORDER, String.format("%.2f", seconds),
+                String.format("%.0f", MEASURED_ORDERS / seconds), String.format("%.0f", lines / seconds));
+
+        Integer stock = jdbcTemplate.queryForObject(
+                "SELECT number_in_stock FROM book WHERE book_id = ?", Integer.class, bookIds.get(0));
+        assertThat(stock).isEqualTo(INITIAL_STOCK - WARMUP_ORDERS - MEASURED_ORDERS);
+    }
+
+    private OrderDto largeOrder() {
+        OrderDto order = new OrderDto();
+        order.setCustomerName(customerName);
+        for (Integer bookId : bookIds) {
+            OrderItemDto item = new OrderItemDto();
+            item.setBookId(bookId);
+            item.setQuantity(1);
+            order.getOrderItems().add(item);
+        }
+        return order;
+    }
+}